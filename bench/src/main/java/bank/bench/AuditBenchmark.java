@@ -0,0 +1,70 @@
+package bank.bench;
+
+import bank.domain.Account;
+import bank.domain.SavingsAccount;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+import bank.domain.observer.AuditOverflowPolicy;
+import bank.domain.observer.AuditService;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit de l'AuditService :
+ * - SYNC : une écriture dans audit.log (répertoire courant) par transaction ;
+ * - BATCH : tampon circulaire et écriture par lots dans un répertoire
+ *   temporaire, politique BLOCK (le débit mesuré est celui du disque une
+ *   fois le tampon plein).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditBenchmark {
+
+    @Param({"SYNC", "BATCH"})
+    String mode;
+
+    private AuditService audit;
+    private Path dir;
+    private final Account account = new SavingsAccount("SA-0000001", 1000.0, 0.01);
+    private final Transaction tx = new Transaction(TransactionType.WITHDRAW, 123.45, 876.55);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("BATCH".equals(mode)) {
+            dir = Files.createTempDirectory("bank-bench");
+            audit = new AuditService(dir.resolve("audit.log"), 64 * 1024, AuditOverflowPolicy.BLOCK);
+        } else {
+            audit = new AuditService();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        audit.close();
+        if (dir != null) {
+            Files.deleteIfExists(dir.resolve("audit.log"));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void onTransaction() {
+        audit.onTransaction(account, tx);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void onTransactionContended() {
+        audit.onTransaction(account, tx);
+    }
+}
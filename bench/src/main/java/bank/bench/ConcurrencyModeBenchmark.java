@@ -0,0 +1,55 @@
+package bank.bench;
+
+import bank.domain.ConcurrencyMode;
+import bank.domain.CreditAccount;
+import bank.infrastructure.LogLevel;
+import bank.infrastructure.Logger;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dépôt puis retrait sur un même compte partagé, en mode LOCKED (verrou du
+ * compte) et OPTIMISTIC (CAS sur le solde versionné), avec 1 et 8 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ConcurrencyModeBenchmark {
+
+    @Param({"LOCKED", "OPTIMISTIC"})
+    ConcurrencyMode mode;
+
+    private CreditAccount account;
+
+    // Chaque opération ajoute une ligne d'historique : compte recréé à chaque itération
+    @Setup(Level.Iteration)
+    public void setUp() {
+        Logger.setLevel(LogLevel.WARN);
+        account = new CreditAccount("CR-1", 1_000_000.0, 1000.0);
+        account.setConcurrencyMode(mode);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Logger.setLevel(LogLevel.INFO);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void depositWithdraw() {
+        account.depositMinor(100);
+        account.withdrawMinor(100);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void depositWithdrawContended() {
+        account.depositMinor(100);
+        account.withdrawMinor(100);
+    }
+}
@@ -0,0 +1,69 @@
+package bank.bench;
+
+import bank.domain.Account;
+import bank.domain.SavingsAccount;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherches dans l'historique d'un compte : findByDateRange sur une
+ * fenêtre de 1 % de l'historique, findByType sur les frais (1 transaction
+ * sur 10).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class HistoryBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    int historySize;
+
+    private Account account;
+    private int window;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        account = new SavingsAccount("SA-1", 1000.0, 0.01);
+        // Une transaction par minute ; une sur dix est un frais
+        List<Transaction> transactions = new ArrayList<>(historySize);
+        double balance = 1000.0;
+        for (int i = 0; i < historySize; i++) {
+            TransactionType type = i % 10 == 9 ? TransactionType.FEE
+                    : i % 2 == 0 ? TransactionType.DEPOSIT : TransactionType.WITHDRAW;
+            double amount = type == TransactionType.FEE ? 0.5 : 10.0;
+            balance += type == TransactionType.DEPOSIT ? amount : -amount;
+            transactions.add(new Transaction(START.plusMinutes(i), type, amount, balance));
+        }
+        account.restoreHistory(transactions);
+        window = Math.max(1, historySize / 100);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Benchmark
+    public List<Transaction> findByDateRange(ThreadRandom random) {
+        int from = random.random.nextInt(historySize - window + 1);
+        return account.findByDateRange(START.plusMinutes(from), START.plusMinutes(from + window - 1));
+    }
+
+    @Benchmark
+    public List<Transaction> findByType() {
+        return account.findByType(TransactionType.FEE);
+    }
+}
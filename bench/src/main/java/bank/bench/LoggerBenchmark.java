@@ -0,0 +1,64 @@
+package bank.bench;
+
+import bank.infrastructure.AsyncLogWriter;
+import bank.infrastructure.LogLevel;
+import bank.infrastructure.Logger;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Débit du Logger :
+ * - SYNC : écriture directe dans bank.log (répertoire courant) ;
+ * - ASYNC : AsyncLogWriter dans un répertoire temporaire ;
+ * - DISABLED : niveau WARN, la ligne INFO est filtrée (coût du test de niveau).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerBenchmark {
+
+    @Param({"SYNC", "ASYNC", "DISABLED"})
+    String mode;
+
+    private final Logger logger = new Logger("bench");
+    private Path dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Logger.setLevel("DISABLED".equals(mode) ? LogLevel.WARN : LogLevel.INFO);
+        if ("ASYNC".equals(mode)) {
+            dir = Files.createTempDirectory("bank-bench");
+            Logger.enableAsync(new AsyncLogWriter(dir.resolve("bank.log"), 64 * 1024, 100, 0, 0));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Logger.disableAsync();
+        Logger.setLevel(LogLevel.INFO);
+        if (dir != null) {
+            Files.deleteIfExists(dir.resolve("bank.log"));
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void logParameterized() {
+        logger.logAmount(LogLevel.INFO, "Withdraw OK: {} from {} (fee: {})", 12_345L, "SA-0000001", 50L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logParameterizedContended() {
+        logger.logAmount(LogLevel.INFO, "Withdraw OK: {} from {} (fee: {})", 12_345L, "SA-0000001", 50L);
+    }
+}
@@ -0,0 +1,87 @@
+package bank.bench;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.BusinessAccount;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+import bank.infrastructure.TextBankSerializer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TextBankSerializer : sauvegarde et chargement d'une banque de 10^3 à
+ * 10^6 comptes (types mélangés, transactionsPerAccount lignes
+ * d'historique chacun).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+@State(Scope.Benchmark)
+public class SerializerBenchmark {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    int accounts;
+
+    @Param({"5"})
+    int transactionsPerAccount;
+
+    private TextBankSerializer serializer;
+    private Bank bank;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        serializer = new TextBankSerializer();
+        bank = new Bank();
+        for (int i = 0; i < accounts; i++) {
+            Account acc;
+            switch (i % 3) {
+                case 0:
+                    acc = new SavingsAccount(String.format("SA-%07d", i), 1000.0, 0.01);
+                    break;
+                case 1:
+                    acc = new CreditAccount(String.format("CR-%07d", i), 1000.0, 500.0);
+                    break;
+                default:
+                    acc = new BusinessAccount(String.format("BA-%07d", i), 1000.0, 2000.0, 0.02, "GOLD");
+            }
+            List<Transaction> transactions = new ArrayList<>(transactionsPerAccount);
+            for (int t = 0; t < transactionsPerAccount; t++) {
+                transactions.add(new Transaction(START.plusHours(t), TransactionType.DEPOSIT,
+                        12.34, 1000.0 + 12.34 * (t + 1)));
+            }
+            acc.restoreHistory(transactions);
+            bank.addAccount(acc);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(bank, out);
+        serialized = out.toByteArray();
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        serializer.serialize(bank, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public Bank deserialize() throws IOException {
+        return serializer.deserialize(new ByteArrayInputStream(serialized));
+    }
+}
@@ -0,0 +1,91 @@
+package bank.bench;
+
+import bank.domain.Bank;
+import bank.domain.CreditAccount;
+import bank.infrastructure.LogLevel;
+import bank.infrastructure.Logger;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bank.transfer : un thread sur des paires de comptes aléatoires, puis
+ * 8 threads concentrés sur hotAccounts comptes (contention des verrous).
+ *
+ * Les transferts réussis ajoutent deux lignes d'historique : la banque est
+ * recréée à chaque itération pour que la mémoire reste bornée.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TransferBenchmark {
+
+    // Montant transféré : 1 centime, les soldes ne s'épuisent jamais
+    private static final long AMOUNT_MINOR = 1;
+
+    @State(Scope.Benchmark)
+    public static class BankState {
+        @Param({"1000", "100000", "1000000"})
+        int accounts;
+
+        Bank bank;
+        String[] ids;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            // On mesure le transfert, pas l'écriture de bank.log (voir LoggerBenchmark)
+            Logger.setLevel(LogLevel.WARN);
+            bank = new Bank();
+            ids = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                ids[i] = String.format("CR-%07d", i);
+                bank.addAccount(new CreditAccount(ids[i], 1_000_000.0, 0.0));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Logger.setLevel(LogLevel.INFO);
+        }
+    }
+
+    /**
+     * Sous-ensemble de comptes sur lequel se concentrent les transferts concurrents.
+     */
+    @State(Scope.Benchmark)
+    public static class HotSet {
+        @Param({"2", "16", "256"})
+        int hotAccounts;
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRandom {
+        final SplittableRandom random = new SplittableRandom();
+        int from;
+        int to;
+
+        // Tire deux indices distincts dans [0, n), sans allocation
+        void next(int n) {
+            from = random.nextInt(n);
+            to = (from + 1 + random.nextInt(n - 1)) % n;
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void transferSingleThread(BankState state, ThreadRandom random) {
+        random.next(state.accounts);
+        state.bank.transferMinor(state.ids[random.from], state.ids[random.to], AMOUNT_MINOR);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void transferContended(BankState state, HotSet hot, ThreadRandom random) {
+        random.next(Math.min(hot.hotAccounts, state.accounts));
+        state.bank.transferMinor(state.ids[random.from], state.ids[random.to], AMOUNT_MINOR);
+    }
+}
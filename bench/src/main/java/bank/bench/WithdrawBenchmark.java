@@ -0,0 +1,93 @@
+package bank.bench;
+
+import bank.domain.Account;
+import bank.domain.BusinessAccount;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.domain.fees.FeePolicy;
+import bank.domain.fees.FixedFeePolicy;
+import bank.domain.fees.NoFeePolicy;
+import bank.domain.fees.PercentageFeePolicy;
+import bank.infrastructure.LogLevel;
+import bank.infrastructure.Logger;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account.withdraw pour chaque type de compte et chaque FeePolicy, et
+ * FeePolicy.computeFee seul.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WithdrawBenchmark {
+
+    private static final long AMOUNT_MINOR = 100;
+
+    @State(Scope.Thread)
+    public static class FeeState {
+        @Param({"NONE", "FIXED", "PERCENTAGE"})
+        String feePolicy;
+
+        FeePolicy policy;
+        long amount = 12_345;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            switch (feePolicy) {
+                case "FIXED":
+                    policy = new FixedFeePolicy(0.5);
+                    break;
+                case "PERCENTAGE":
+                    policy = new PercentageFeePolicy(0.015);
+                    break;
+                default:
+                    policy = new NoFeePolicy();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class AccountState {
+        @Param({"SAVINGS", "CREDIT", "BUSINESS"})
+        String accountType;
+
+        Account account;
+
+        // Chaque retrait ajoute une ligne d'historique : compte recréé à chaque itération
+        @Setup(Level.Iteration)
+        public void setUp(FeeState fees) {
+            Logger.setLevel(LogLevel.WARN);
+            switch (accountType) {
+                case "CREDIT":
+                    account = new CreditAccount("CR-1", 1_000_000_000.0, 1000.0);
+                    break;
+                case "BUSINESS":
+                    account = new BusinessAccount("BA-1", 1_000_000_000.0, 1000.0, 0.02, "GOLD");
+                    break;
+                default:
+                    account = new SavingsAccount("SA-1", 1_000_000_000.0, 0.01);
+            }
+            account.setFeePolicy(fees.policy);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            Logger.setLevel(LogLevel.INFO);
+        }
+    }
+
+    @Benchmark
+    public void withdraw(AccountState state) {
+        state.account.withdrawMinor(AMOUNT_MINOR);
+    }
+
+    @Benchmark
+    public long computeFee(FeeState state) {
+        return state.policy.computeFee(state.amount);
+    }
+}
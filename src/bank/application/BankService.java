@@ -4,6 +4,8 @@ import bank.domain.*;
 import bank.infrastructure.BankRepository;
 import bank.errors.*;
 
+import java.util.List;
+
 public class BankService {
     private BankRepository repository;
 
@@ -14,7 +16,7 @@ public class BankService {
     public void transfer(String from, String to, double amount) throws BusinessRuleViolation {
         Bank bank = repository.load();
         bank.transfer(from, to, amount);
-        repository.save(bank);
+        repository.saveChanges(bank, List.of(from, to));
     }
 
     public Bank createSampleBank() {
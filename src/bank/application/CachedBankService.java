@@ -0,0 +1,181 @@
+package bank.application;
+
+import bank.domain.Bank;
+import bank.errors.BusinessRuleViolation;
+import bank.infrastructure.BankRepository;
+import bank.infrastructure.Logger;
+import bank.infrastructure.PersistenceException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BankService en mode « write-behind ».
+ *
+ * La banque est chargée une seule fois puis reste en mémoire. Chaque transfert
+ * marque les deux comptes comme modifiés ; les comptes modifiés sont persistés
+ * en arrière-plan (repository.saveChanges) toutes les flushIntervalMillis ms,
+ * ou dès que maxDirtyAccounts comptes sont en attente (un seul flush anticipé
+ * est planifié à la fois). La perte maximale en cas d'arrêt brutal est donc
+ * bornée par l'intervalle de flush.
+ *
+ * Si l'écriture ne suit pas et que 2 × maxDirtyAccounts comptes sont en
+ * attente, le thread appelant persiste lui-même avant de rendre la main :
+ * les transferts sont ralentis au rythme du repository.
+ *
+ * flush() persiste immédiatement ; close() fait un dernier flush.
+ */
+public class CachedBankService extends BankService implements AutoCloseable {
+
+    private final BankRepository repository;
+    private final int maxDirtyAccounts;
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    private final Logger logger = new Logger();
+
+    private volatile Bank bank;
+    // Dernière erreur du flush asynchrone, relancée par le prochain flush()
+    private volatile PersistenceException lastFailure;
+
+    /**
+     * @param repository Repository sous-jacent
+     * @param flushIntervalMillis Délai maximal avant persistance d'une modification
+     * @param maxDirtyAccounts Nombre de comptes modifiés déclenchant un flush anticipé
+     */
+    public CachedBankService(BankRepository repository, long flushIntervalMillis, int maxDirtyAccounts) {
+        super(repository);
+        this.repository = repository;
+        this.maxDirtyAccounts = maxDirtyAccounts;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bank-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushInBackground,
+                flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void transfer(String from, String to, double amount) throws BusinessRuleViolation {
+        residentBank().transfer(from, to, amount);
+        dirty.add(from);
+        dirty.add(to);
+        int pending = dirty.size();
+        if (pending >= 2 * maxDirtyAccounts) {
+            // Le flush d'arrière-plan ne suit pas : persister dans l'appelant
+            flushInBackground();
+        } else if (pending >= maxDirtyAccounts && flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::earlyFlush);
+            } catch (RejectedExecutionException e) {
+                // Service en cours de fermeture : close() fera le dernier flush
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    @Override
+    public void saveBank(Bank bank) {
+        synchronized (flushLock) {
+            this.bank = bank;
+            dirty.clear();
+            repository.save(bank);
+        }
+    }
+
+    @Override
+    public Bank loadBank() {
+        return residentBank();
+    }
+
+    /**
+     * Persiste immédiatement tous les comptes modifiés.
+     *
+     * @throws PersistenceException si l'écriture échoue (ou a échoué en arrière-plan)
+     */
+    public void flush() throws PersistenceException {
+        PersistenceException failure = lastFailure;
+        lastFailure = null;
+        doFlush();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public int getDirtyAccountCount() {
+        return dirty.size();
+    }
+
+    /**
+     * Arrête le flush périodique puis persiste les dernières modifications.
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private Bank residentBank() {
+        Bank b = bank;
+        if (b == null) {
+            synchronized (flushLock) {
+                if (bank == null) {
+                    bank = repository.load();
+                }
+                b = bank;
+            }
+        }
+        return b;
+    }
+
+    private void earlyFlush() {
+        // Libéré avant le flush : les comptes modifiés pendant l'écriture
+        // peuvent planifier le suivant
+        flushScheduled.set(false);
+        flushInBackground();
+    }
+
+    private void flushInBackground() {
+        try {
+            doFlush();
+        } catch (PersistenceException e) {
+            lastFailure = e;
+            logger.logError("Write-behind flush FAILED : " + e.getMessage());
+        }
+    }
+
+    private void doFlush() {
+        synchronized (flushLock) {
+            if (dirty.isEmpty() || bank == null) {
+                return;
+            }
+            List<String> ids = new ArrayList<>(dirty.size());
+            for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+                ids.add(it.next());
+                it.remove();
+            }
+            try {
+                repository.saveChanges(bank, ids);
+            } catch (PersistenceException e) {
+                // Les comptes restent à persister au prochain flush
+                dirty.addAll(ids);
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package bank.application;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.Money;
+import bank.domain.fees.FeePolicy;
+import bank.infrastructure.Logger;
+import bank.infrastructure.PersistenceException;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traitement de fin de période : intérêts (comptes épargne et entreprise) puis
+ * frais de tenue de compte (FeePolicy appliquée au solde) sur tous les comptes
+ * de la banque.
+ *
+ * Les comptes sont découpés en tranches de accountsPerChunk, traitées en
+ * parallèle sur un ForkJoinPool. Chaque compte est clôturé par
+ * Account.closePeriod, sous le verrou du compte : les transferts peuvent
+ * continuer pendant le traitement.
+ *
+ * Reprise : closePeriod applique intérêts, frais et marque de période en une
+ * seule mise à jour, et ne fait rien sur un compte déjà clôturé pour cette
+ * période. Relancer run() avec le même identifiant de période (après un
+ * arrêt, y compris sur une banque rechargée) ne compte donc jamais deux fois
+ * un compte, que sa tranche ait été terminée ou non.
+ * Chaque tranche terminée est aussi ajoutée (avec fsync) au fichier de
+ * checkpoint : à la reprise, une tranche DONE dont tous les comptes portent
+ * la marque est sautée sans verrou ; sinon (soldes non sauvegardés avant
+ * l'arrêt) ses comptes non marqués sont traités.
+ *
+ * Format du checkpoint :
+ * RUN;2025-12;4096
+ * DONE;0
+ * DONE;3
+ */
+public class PeriodEndEngine {
+
+    private static final int DEFAULT_ACCOUNTS_PER_CHUNK = 4096;
+    private static final String HEADER_PREFIX = "RUN";
+    private static final String DONE_PREFIX = "DONE";
+    private static final String SEPARATOR = ";";
+
+    private final ForkJoinPool pool;
+    private final Path checkpointFile;
+    // null = pas de frais périodiques
+    private final FeePolicy maintenanceFee;
+    private final int accountsPerChunk;
+    private final Logger logger = new Logger();
+
+    private volatile boolean cancelled;
+
+    public PeriodEndEngine(ForkJoinPool pool, Path checkpointFile, FeePolicy maintenanceFee) {
+        this(pool, checkpointFile, maintenanceFee, DEFAULT_ACCOUNTS_PER_CHUNK);
+    }
+
+    /**
+     * @param pool Pool d'exécution des tranches
+     * @param checkpointFile Fichier de progression (créé si besoin)
+     * @param maintenanceFee Frais périodiques, calculés sur le solde, ou null
+     * @param accountsPerChunk Nombre de comptes par tranche (unité de reprise)
+     */
+    public PeriodEndEngine(ForkJoinPool pool, Path checkpointFile, FeePolicy maintenanceFee,
+                           int accountsPerChunk) {
+        if (accountsPerChunk <= 0) {
+            throw new IllegalArgumentException("accountsPerChunk must be > 0");
+        }
+        this.pool = pool;
+        this.checkpointFile = checkpointFile;
+        this.maintenanceFee = maintenanceFee;
+        this.accountsPerChunk = accountsPerChunk;
+    }
+
+    /**
+     * Traite tous les comptes pour la période donnée, en reprenant le
+     * checkpoint s'il concerne la même période. Écrit une ligne de log.
+     *
+     * @param periodId Identifiant de la période (ex. "2025-12")
+     * @return Le bilan du run
+     * @throws PersistenceException si le checkpoint ne peut pas être lu ou écrit
+     */
+    public Summary run(Bank bank, String periodId) throws PersistenceException {
+        long start = System.nanoTime();
+        List<Account> accounts = bank.getAllAccounts();
+        int chunks = (accounts.size() + accountsPerChunk - 1) / accountsPerChunk;
+
+        Summary summary = new Summary();
+        try (FileChannel checkpoint = openCheckpoint(periodId, summary.alreadyDone)) {
+            pool.invoke(new ChunkTask(accounts, periodId, 0, chunks, summary, checkpoint));
+        } catch (IOException e) {
+            throw new PersistenceException("Erreur du checkpoint " + checkpointFile, e);
+        } finally {
+            // La demande d'arrêt vaut pour ce run seulement
+            cancelled = false;
+        }
+        summary.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        logger.logInfo("Fin de période " + periodId + " : " + summary
+                + (summary.isComplete() ? "" : " (interrompu)"));
+        return summary;
+    }
+
+    /**
+     * Arrête le run en cours après les tranches commencées, ou le prochain
+     * run() si aucun n'est en cours (il s'arrête alors sans rien traiter).
+     * Les tranches non traitées sont comptées dans Summary.getCancelledChunks ;
+     * un nouveau run() avec la même période les reprendra.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    // Lit les tranches faites si le checkpoint est celui de la période, sinon le recrée
+    private FileChannel openCheckpoint(String periodId, BitSet done) throws IOException {
+        String header = HEADER_PREFIX + SEPARATOR + periodId + SEPARATOR + accountsPerChunk;
+        if (Files.exists(checkpointFile)) {
+            List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(header)) {
+                for (String line : lines.subList(1, lines.size())) {
+                    String[] parts = line.split(SEPARATOR);
+                    if (parts.length == 2 && DONE_PREFIX.equals(parts[0])) {
+                        try {
+                            done.set(Integer.parseInt(parts[1]));
+                        } catch (NumberFormatException e) {
+                            break; // fin tronquée
+                        }
+                    }
+                }
+                return FileChannel.open(checkpointFile, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+        }
+        FileChannel channel = FileChannel.open(checkpointFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        channel.write(ByteBuffer.wrap((header + "\n").getBytes(StandardCharsets.UTF_8)));
+        channel.force(true);
+        return channel;
+    }
+
+    private void processChunk(List<Account> accounts, String periodId, int chunk, Summary summary) {
+        int from = chunk * accountsPerChunk;
+        int to = Math.min(from + accountsPerChunk, accounts.size());
+        long interest = 0;
+        long fees = 0;
+        int processed = 0;
+        int alreadyClosed = 0;
+        int failures = 0;
+        for (int i = from; i < to; i++) {
+            Account account = accounts.get(i);
+            try {
+                Account.PeriodClose close = account.closePeriod(periodId, RoundingMode.HALF_EVEN,
+                        maintenanceFee);
+                if (close == null) {
+                    alreadyClosed++;
+                    continue;
+                }
+                interest += close.getInterestMinor();
+                fees += close.getFeeMinor();
+            } catch (RuntimeException e) {
+                // Compte non clôturé : un prochain run() avec la même période le reprendra
+                logger.logError(String.format("Fin de période %s FAILED : compte %s : %s",
+                        periodId, account.getAccountNumber(), e));
+                failures++;
+            }
+            processed++;
+        }
+        summary.accounts.add(processed);
+        summary.alreadyClosed.add(alreadyClosed);
+        summary.interestMinor.add(interest);
+        summary.feesMinor.add(fees);
+        summary.failures.add(failures);
+    }
+
+    // Tranche DONE au checkpoint dont tous les comptes portent la marque de période
+    private boolean isClosed(List<Account> accounts, String periodId, int chunk) {
+        int from = chunk * accountsPerChunk;
+        int to = Math.min(from + accountsPerChunk, accounts.size());
+        for (int i = from; i < to; i++) {
+            if (!periodId.equals(accounts.get(i).getClosedPeriod())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void markDone(FileChannel checkpoint, int chunk) {
+        ByteBuffer line = ByteBuffer.wrap((DONE_PREFIX + SEPARATOR + chunk + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        try {
+            // APPEND : chaque write ajoute la ligne entière en fin de fichier
+            synchronized (checkpoint) {
+                checkpoint.write(line);
+                checkpoint.force(false);
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Erreur d'écriture du checkpoint", e);
+        }
+    }
+
+    /**
+     * Découpe l'intervalle de tranches en deux jusqu'à une tranche par tâche.
+     */
+    private final class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Account> accounts;
+        private final String periodId;
+        private final int from;
+        private final int to;
+        private final Summary summary;
+        private final FileChannel checkpoint;
+
+        ChunkTask(List<Account> accounts, String periodId, int from, int to, Summary summary,
+                  FileChannel checkpoint) {
+            this.accounts = accounts;
+            this.periodId = periodId;
+            this.from = from;
+            this.to = to;
+            this.summary = summary;
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        protected void compute() {
+            if (from >= to) {
+                return;
+            }
+            if (cancelled) {
+                summary.cancelledChunks.add(to - from);
+                return;
+            }
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ChunkTask(accounts, periodId, from, mid, summary, checkpoint),
+                          new ChunkTask(accounts, periodId, mid, to, summary, checkpoint));
+                return;
+            }
+            if (summary.alreadyDone.get(from) && isClosed(accounts, periodId, from)) {
+                summary.skippedChunks.increment();
+                return;
+            }
+            processChunk(accounts, periodId, from, summary);
+            markDone(checkpoint, from);
+        }
+    }
+
+    /**
+     * Bilan d'un run (montants en centimes).
+     */
+    public static final class Summary {
+        private final BitSet alreadyDone = new BitSet();
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder skippedChunks = new LongAdder();
+        private final LongAdder cancelledChunks = new LongAdder();
+        private final LongAdder alreadyClosed = new LongAdder();
+        private final LongAdder interestMinor = new LongAdder();
+        private final LongAdder feesMinor = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private long elapsedMillis;
+
+        public long getAccountsProcessed() {
+            return accounts.sum();
+        }
+
+        public long getSkippedChunks() {
+            return skippedChunks.sum();
+        }
+
+        // Tranches non traitées à cause de cancel()
+        public long getCancelledChunks() {
+            return cancelledChunks.sum();
+        }
+
+        // false si le run a été interrompu par cancel() : relancer la même période
+        public boolean isComplete() {
+            return cancelledChunks.sum() == 0;
+        }
+
+        // Comptes des tranches traitées déjà clôturés pour la période (reprise)
+        public long getAlreadyClosed() {
+            return alreadyClosed.sum();
+        }
+
+        public long getInterestMinor() {
+            return interestMinor.sum();
+        }
+
+        public long getFeesMinor() {
+            return feesMinor.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return getAccountsProcessed() + " comptes, " + getSkippedChunks() + " tranches déjà faites, "
+                    + getCancelledChunks() + " tranches annulées, "
+                    + getAlreadyClosed() + " comptes déjà clôturés, "
+                    + "intérêts " + Money.format(getInterestMinor()) + " EUR, frais "
+                    + Money.format(getFeesMinor()) + " EUR, " + getFailures() + " échecs, "
+                    + elapsedMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package bank.application;
+
+import bank.domain.Bank;
+import bank.infrastructure.BankSerializer;
+import bank.infrastructure.BinaryBankSerializer;
+import bank.infrastructure.FileBankRepository;
+import bank.infrastructure.PersistenceException;
+import bank.infrastructure.TextBankSerializer;
+
+import java.nio.file.Path;
+
+/**
+ * Conversion d'un snapshot entre le format texte et le format binaire.
+ *
+ * Usage : SnapshotConverter <text|binary> <source> <text|binary> <destination>
+ * Exemple : SnapshotConverter text bank.txt binary bank.bin
+ */
+public class SnapshotConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 4) {
+            System.err.println("Usage : SnapshotConverter <text|binary> <source> <text|binary> <destination>");
+            System.exit(1);
+        }
+        try {
+            convert(Path.of(args[1]), serializerFor(args[0]), Path.of(args[3]), serializerFor(args[2]));
+            System.out.println("✓ " + args[1] + " (" + args[0] + ") → " + args[3] + " (" + args[2] + ")");
+        } catch (PersistenceException | IllegalArgumentException e) {
+            System.err.println("✗ Conversion impossible : " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Relit source avec le format from et l'écrit dans target avec le format to.
+     *
+     * @return La banque convertie
+     * @throws PersistenceException si la lecture ou l'écriture échoue
+     */
+    public static Bank convert(Path source, BankSerializer from, Path target, BankSerializer to) {
+        Bank bank = new FileBankRepository(source, from).load();
+        new FileBankRepository(target, to).save(bank);
+        return bank;
+    }
+
+    public static BankSerializer serializerFor(String format) {
+        switch (format) {
+            case "text":
+                return new TextBankSerializer();
+            case "binary":
+                return new BinaryBankSerializer();
+            default:
+                throw new IllegalArgumentException("Format inconnu : " + format);
+        }
+    }
+}
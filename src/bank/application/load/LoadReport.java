@@ -0,0 +1,158 @@
+package bank.application.load;
+
+import bank.domain.Money;
+import bank.errors.TransferException;
+import bank.infrastructure.metrics.LatencyHistogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Résultat d'un run du {@link LoadRunner}. Montants en centimes, latences en
+ * nanosecondes (mesurées pour toutes les opérations, échecs compris).
+ */
+public class LoadReport {
+
+    private static final OperationType[] TYPES = OperationType.values();
+
+    private final int threads;
+    private final LatencyHistogram[] latencies = new LatencyHistogram[TYPES.length];
+    private final LongAdder[] failures = new LongAdder[TYPES.length];
+    private final Map<String, LongAdder> failuresByReason = new ConcurrentHashMap<>();
+
+    // Renseignés par le LoadRunner
+    final LongAdder deposited = new LongAdder();
+    final LongAdder withdrawn = new LongAdder();
+    long elapsedNanos;
+    long balancesBefore;
+    long balancesAfter;
+    long feesBefore;
+    long feesAfter;
+
+    LoadReport(int threads) {
+        this.threads = threads;
+        for (int i = 0; i < TYPES.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            failures[i] = new LongAdder();
+        }
+    }
+
+    void recordSuccess(OperationType type, long startNanos) {
+        latencies[type.ordinal()].record(System.nanoTime() - startNanos);
+    }
+
+    void recordFailure(OperationType type, long startNanos, Throwable error) {
+        latencies[type.ordinal()].record(System.nanoTime() - startNanos);
+        failures[type.ordinal()].increment();
+        // Cause réelle d'un transfert refusé (ex. BusinessRuleViolation)
+        Throwable reason = error instanceof TransferException && error.getCause() != null
+                ? error.getCause() : error;
+        failuresByReason.computeIfAbsent(reason.getClass().getSimpleName(), k -> new LongAdder())
+                .increment();
+    }
+
+    public long getOperations() {
+        long total = 0;
+        for (LatencyHistogram h : latencies) {
+            total += h.getCount();
+        }
+        return total;
+    }
+
+    public long getOperations(OperationType type) {
+        return latencies[type.ordinal()].getCount();
+    }
+
+    public long getFailures() {
+        long total = 0;
+        for (LongAdder f : failures) {
+            total += f.sum();
+        }
+        return total;
+    }
+
+    public long getFailures(OperationType type) {
+        return failures[type.ordinal()].sum();
+    }
+
+    /**
+     * Échecs par classe d'exception (nom simple), triés par nom.
+     */
+    public Map<String, Long> getFailuresByReason() {
+        Map<String, Long> result = new TreeMap<>();
+        failuresByReason.forEach((reason, count) -> result.put(reason, count.sum()));
+        return result;
+    }
+
+    public LatencyHistogram getLatencies(OperationType type) {
+        return latencies[type.ordinal()];
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Opérations par seconde, échecs compris.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getOperations() * 1e9 / elapsedNanos;
+    }
+
+    public long getDepositedMinor() {
+        return deposited.sum();
+    }
+
+    public long getWithdrawnMinor() {
+        return withdrawn.sum();
+    }
+
+    public long getFeesMinor() {
+        return feesAfter - feesBefore;
+    }
+
+    /**
+     * Écart entre la somme des soldes finale et celle attendue ; 0 si aucun
+     * centime n'a été créé ou perdu.
+     */
+    public long getConservationGapMinor() {
+        long expected = balancesBefore + getDepositedMinor() - getWithdrawnMinor() - getFeesMinor();
+        return balancesAfter - expected;
+    }
+
+    public boolean isMoneyConserved() {
+        return getConservationGapMinor() == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d opérations, %d threads, %.1f s, %.0f op/s, %d échecs%n",
+                getOperations(), threads, elapsedNanos / 1e9, getThroughput(), getFailures()));
+        sb.append(String.format("%-10s %10s %8s %10s %10s %10s %10s%n",
+                "type", "count", "échecs", "p50(us)", "p99(us)", "p999(us)", "max(us)"));
+        for (OperationType type : TYPES) {
+            LatencyHistogram h = latencies[type.ordinal()];
+            if (h.getCount() == 0) {
+                continue;
+            }
+            sb.append(String.format("%-10s %10d %8d %10.1f %10.1f %10.1f %10.1f%n",
+                    type, h.getCount(), getFailures(type),
+                    h.getPercentileNanos(50) / 1e3, h.getPercentileNanos(99) / 1e3,
+                    h.getPercentileNanos(99.9) / 1e3, h.getMaxNanos() / 1e3));
+        }
+        getFailuresByReason().forEach((reason, count) ->
+                sb.append("  échec ").append(reason).append(" : ").append(count)
+                  .append(System.lineSeparator()));
+        sb.append("Dépôts ").append(Money.format(getDepositedMinor()))
+          .append(" EUR, retraits ").append(Money.format(getWithdrawnMinor()))
+          .append(" EUR, frais ").append(Money.format(getFeesMinor())).append(" EUR");
+        sb.append(System.lineSeparator());
+        sb.append(isMoneyConserved()
+                ? "✓ Conservation de la monnaie : OK"
+                : "✗ Conservation de la monnaie : écart de " + Money.format(getConservationGapMinor()) + " EUR");
+        return sb.toString();
+    }
+}
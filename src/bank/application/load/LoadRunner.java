@@ -0,0 +1,128 @@
+package bank.application.load;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.HistoryView;
+import bank.domain.TransactionType;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Exécute un flux d'opérations sur une banque avec plusieurs threads et
+ * produit un {@link LoadReport} : débit, latences par type d'opération,
+ * échecs par cause et contrôle de conservation de la monnaie.
+ *
+ * Conservation : la somme des soldes en fin de run doit être égale à la somme
+ * initiale + dépôts réussis - retraits réussis - frais prélevés pendant le
+ * run (lus dans les historiques). Les transferts ne créent ni ne détruisent
+ * d'argent, qu'ils réussissent ou échouent.
+ */
+public class LoadRunner {
+
+    // Taille de la page lue par une opération HISTORY
+    private static final int HISTORY_PAGE = 20;
+
+    private final int threads;
+    private final long seed;
+
+    /**
+     * @param threads Nombre de threads clients
+     * @param seed Graine des générateurs aléatoires des threads
+     */
+    public LoadRunner(int threads, long seed) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be > 0");
+        }
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    /**
+     * Exécute toutes les opérations de source et attend la fin des threads.
+     */
+    public LoadReport run(Bank bank, OperationSource source) throws InterruptedException {
+        LoadReport report = new LoadReport(threads);
+        report.balancesBefore = totalBalance(bank);
+        report.feesBefore = totalFees(bank);
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        SplittableRandom seeds = new SplittableRandom(seed);
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = seeds.split();
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                Operation op;
+                while ((op = source.next(random)) != null) {
+                    execute(bank, op, report);
+                }
+            }, "load-" + t);
+            workers[t].start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        report.elapsedNanos = System.nanoTime() - begin;
+
+        report.balancesAfter = totalBalance(bank);
+        report.feesAfter = totalFees(bank);
+        return report;
+    }
+
+    private static void execute(Bank bank, Operation op, LoadReport report) {
+        long start = System.nanoTime();
+        try {
+            switch (op.getType()) {
+                case BALANCE:
+                    bank.getAccount(op.getAccount()).getBalanceMinor();
+                    break;
+                case HISTORY:
+                    HistoryView history = bank.getAccount(op.getAccount()).history();
+                    int size = history.size();
+                    history.subList(Math.max(0, size - HISTORY_PAGE), size).amountsMinor().sum();
+                    break;
+                case DEPOSIT:
+                    bank.getAccount(op.getAccount()).depositMinor(op.getAmountMinor());
+                    report.deposited.add(op.getAmountMinor());
+                    break;
+                case WITHDRAW:
+                    bank.getAccount(op.getAccount()).withdrawMinor(op.getAmountMinor());
+                    report.withdrawn.add(op.getAmountMinor());
+                    break;
+                case TRANSFER:
+                    bank.transferMinor(op.getAccount(), op.getTarget(), op.getAmountMinor());
+                    break;
+                default:
+                    throw new IllegalStateException("Type inconnu : " + op.getType());
+            }
+            report.recordSuccess(op.getType(), start);
+        } catch (RuntimeException e) {
+            report.recordFailure(op.getType(), start, e);
+        }
+    }
+
+    private static long totalBalance(Bank bank) {
+        long total = 0;
+        for (Account acc : bank.getAllAccounts()) {
+            total += acc.getBalanceMinor();
+        }
+        return total;
+    }
+
+    private static long totalFees(Bank bank) {
+        long total = 0;
+        for (Account acc : bank.getAllAccounts()) {
+            total += acc.totalOfMinor(TransactionType.FEE);
+        }
+        return total;
+    }
+}
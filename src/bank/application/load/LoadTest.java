@@ -0,0 +1,108 @@
+package bank.application.load;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.BusinessAccount;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.infrastructure.FileBankRepository;
+import bank.infrastructure.LogLevel;
+import bank.infrastructure.Logger;
+import bank.infrastructure.PersistenceException;
+import bank.infrastructure.TextBankSerializer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test de charge en ligne de commande.
+ *
+ * Usage :
+ *   LoadTest generate <comptes> <threads> <opérations> <ratioLectures> <zipf> <tauxEchec> [seed]
+ *   LoadTest replay <snapshot.txt> <bank.log> <threads>
+ *
+ * Exemples :
+ *   LoadTest generate 100000 8 5000000 0.8 1.1 0.01
+ *   LoadTest replay bank.txt bank.log 1
+ *
+ * Le niveau de log passe à WARN pendant le run : les lignes INFO de chaque
+ * opération rempliraient bank.log (et fausseraient un replay ultérieur).
+ */
+public class LoadTest {
+
+    private static final double INITIAL_BALANCE = 1000.0;
+
+    public static void main(String[] args) {
+        try {
+            LoadReport report;
+            if (args.length >= 7 && "generate".equals(args[0])) {
+                int accounts = Integer.parseInt(args[1]);
+                long seed = args.length > 7 ? Long.parseLong(args[7]) : 42L;
+                Bank bank = createBank(accounts);
+                List<String> ids = new ArrayList<>(accounts);
+                for (Account acc : bank.getAllAccounts()) {
+                    ids.add(acc.getAccountNumber());
+                }
+                WorkloadGenerator generator = new WorkloadGenerator(ids, Long.parseLong(args[3]),
+                        Double.parseDouble(args[4]), Double.parseDouble(args[5]),
+                        Double.parseDouble(args[6]), seed);
+                report = run(bank, generator, Integer.parseInt(args[2]), seed);
+            } else if (args.length == 4 && "replay".equals(args[0])) {
+                Bank bank = new FileBankRepository(Path.of(args[1]), new TextBankSerializer()).load();
+                LogReplay replay = LogReplay.fromFile(Path.of(args[2]));
+                System.out.println(replay.getOperations().size() + " opérations lues ("
+                        + replay.getSkippedLines() + " lignes ignorées)");
+                report = run(bank, replay, Integer.parseInt(args[3]), 42L);
+            } else {
+                System.err.println("Usage : LoadTest generate <comptes> <threads> <opérations> "
+                        + "<ratioLectures> <zipf> <tauxEchec> [seed]");
+                System.err.println("        LoadTest replay <snapshot.txt> <bank.log> <threads>");
+                System.exit(1);
+                return;
+            }
+            System.out.println(report);
+            if (!report.isMoneyConserved()) {
+                System.exit(2);
+            }
+        } catch (PersistenceException | IllegalArgumentException e) {
+            System.err.println("✗ Test de charge impossible : " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LoadReport run(Bank bank, OperationSource source, int threads, long seed)
+            throws InterruptedException {
+        LogLevel previous = Logger.getLevel();
+        Logger.setLevel(LogLevel.WARN);
+        try {
+            return new LoadRunner(threads, seed).run(bank, source);
+        } finally {
+            Logger.setLevel(previous);
+        }
+    }
+
+    /**
+     * Banque de test : comptes épargne, crédit et entreprise en alternance,
+     * INITIAL_BALANCE EUR chacun.
+     */
+    public static Bank createBank(int accounts) {
+        Bank bank = new Bank();
+        for (int i = 0; i < accounts; i++) {
+            switch (i % 3) {
+                case 0:
+                    bank.addAccount(new SavingsAccount(String.format("SA-%07d", i), INITIAL_BALANCE, 0.02));
+                    break;
+                case 1:
+                    bank.addAccount(new CreditAccount(String.format("CR-%07d", i), INITIAL_BALANCE, 500.0));
+                    break;
+                default:
+                    bank.addAccount(new BusinessAccount(String.format("BA-%07d", i), INITIAL_BALANCE,
+                            2000.0, 0.01, "GOLD"));
+            }
+        }
+        return bank;
+    }
+}
@@ -0,0 +1,147 @@
+package bank.application.load;
+
+import bank.domain.Money;
+import bank.infrastructure.PersistenceException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rejoue les opérations reconstruites à partir des lignes de bank.log :
+ * - "Withdraw OK: 150.00 from SA-004 (fee: 0.00)" : retrait ;
+ * - "Deposit OK: 200.00 to SA-002" : dépôt ;
+ * - "Transfert OK : 10.00 EUR A -> B" et "Transfert FAILED : ..." : transfert.
+ *
+ * Un transfert réussi écrit aussi une ligne Withdraw et une ligne Deposit, un
+ * transfert annulé après le retrait ("Transfert FAILED : ... (annulé)") une
+ * ligne Withdraw et parfois une ligne Deposit : elles sont retirées
+ * (recherche parmi les dernières opérations lues) pour que le transfert ne
+ * soit pas rejoué plusieurs fois. Les montants au format des anciens logs
+ * ("150,00") sont acceptés. Les autres lignes sont ignorées, dont celles des
+ * transferts par lot ("Batch transfert FAILED", résumé du lot) : un lot
+ * n'écrit aucune ligne par transfert réussi.
+ *
+ * Avec plusieurs threads, les opérations sont distribuées dans l'ordre du log
+ * mais peuvent s'exécuter dans un ordre légèrement différent ; un seul thread
+ * rejoue l'ordre exact.
+ */
+public class LogReplay implements OperationSource {
+
+    private static final Pattern WITHDRAW =
+            Pattern.compile("Withdraw OK: (\\S+) from (\\S+) \\(fee: \\S+\\)");
+    private static final Pattern DEPOSIT = Pattern.compile("Deposit OK: (\\S+) to (\\S+)");
+    private static final Pattern TRANSFER =
+            Pattern.compile("Transfert (OK|FAILED) : (\\S+) EUR (\\S+) -> (\\S+)( \\(annulé\\))?");
+    // Nombre d'opérations précédentes examinées pour retrouver celles d'un transfert
+    private static final int TRANSFER_WINDOW = 64;
+
+    private final List<Operation> operations;
+    private final int skippedLines;
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private LogReplay(List<Operation> operations, int skippedLines) {
+        this.operations = Collections.unmodifiableList(operations);
+        this.skippedLines = skippedLines;
+    }
+
+    /**
+     * @throws PersistenceException si le fichier ne peut pas être lu
+     */
+    public static LogReplay fromFile(Path logFile) throws PersistenceException {
+        try {
+            return fromLines(Files.readAllLines(logFile, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new PersistenceException("Impossible de lire " + logFile, e);
+        }
+    }
+
+    public static LogReplay fromLines(List<String> lines) {
+        List<Operation> operations = new ArrayList<>();
+        int skipped = 0;
+        for (String line : lines) {
+            try {
+                if (!parseLine(line, operations)) {
+                    skipped++;
+                }
+            } catch (NumberFormatException e) {
+                skipped++;
+            }
+        }
+        return new LogReplay(operations, skipped);
+    }
+
+    // Ajoute l'opération de la ligne ; false si la ligne n'en décrit aucune
+    private static boolean parseLine(String line, List<Operation> operations) {
+        Matcher m = TRANSFER.matcher(line);
+        if (m.find()) {
+            long amount = parseAmount(m.group(2));
+            String from = m.group(3);
+            String to = m.group(4);
+            if ("OK".equals(m.group(1)) || m.group(5) != null) {
+                // Le dépôt, s'il a été écrit, suit le retrait
+                int withdraw = removeRecent(operations, OperationType.WITHDRAW, from, amount, 0);
+                if (withdraw >= 0) {
+                    removeRecent(operations, OperationType.DEPOSIT, to, amount, withdraw);
+                }
+            }
+            operations.add(Operation.transfer(from, to, amount));
+            return true;
+        }
+        m = WITHDRAW.matcher(line);
+        if (m.find()) {
+            operations.add(Operation.withdraw(m.group(2), parseAmount(m.group(1))));
+            return true;
+        }
+        m = DEPOSIT.matcher(line);
+        if (m.find()) {
+            operations.add(Operation.deposit(m.group(2), parseAmount(m.group(1))));
+            return true;
+        }
+        return false;
+    }
+
+    // Retire la dernière opération correspondante d'indice >= from ; son indice ou -1
+    private static int removeRecent(List<Operation> operations, OperationType type,
+                                    String account, long amount, int from) {
+        int stop = Math.max(from, operations.size() - TRANSFER_WINDOW);
+        for (int i = operations.size() - 1; i >= stop; i--) {
+            Operation op = operations.get(i);
+            if (op.getType() == type && op.getAccount().equals(account)
+                    && op.getAmountMinor() == amount) {
+                operations.remove(i);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long parseAmount(String text) {
+        return Money.parse(text.replace(',', '.'));
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    /**
+     * Nombre de lignes du log qui ne décrivent aucune opération.
+     */
+    public int getSkippedLines() {
+        return skippedLines;
+    }
+
+    @Override
+    public Operation next(SplittableRandom random) {
+        int i = cursor.getAndIncrement();
+        return i < operations.size() ? operations.get(i) : null;
+    }
+}
@@ -0,0 +1,70 @@
+package bank.application.load;
+
+import bank.domain.Money;
+
+/**
+ * Opération d'une charge de test, générée ({@link WorkloadGenerator}) ou
+ * rejouée ({@link LogReplay}). Montant en centimes.
+ */
+public final class Operation {
+    private final OperationType type;
+    private final String account;
+    // Compte crédité (TRANSFER uniquement, sinon null)
+    private final String target;
+    private final long amountMinor;
+
+    private Operation(OperationType type, String account, String target, long amountMinor) {
+        this.type = type;
+        this.account = account;
+        this.target = target;
+        this.amountMinor = amountMinor;
+    }
+
+    public static Operation balance(String account) {
+        return new Operation(OperationType.BALANCE, account, null, 0);
+    }
+
+    public static Operation history(String account) {
+        return new Operation(OperationType.HISTORY, account, null, 0);
+    }
+
+    public static Operation deposit(String account, long amountMinor) {
+        return new Operation(OperationType.DEPOSIT, account, null, amountMinor);
+    }
+
+    public static Operation withdraw(String account, long amountMinor) {
+        return new Operation(OperationType.WITHDRAW, account, null, amountMinor);
+    }
+
+    public static Operation transfer(String from, String to, long amountMinor) {
+        return new Operation(OperationType.TRANSFER, from, to, amountMinor);
+    }
+
+    public OperationType getType() {
+        return type;
+    }
+
+    public String getAccount() {
+        return account;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append(type).append(' ').append(account);
+        if (target != null) {
+            sb.append(" -> ").append(target);
+        }
+        if (!type.isRead()) {
+            Money.appendTo(sb.append(' '), amountMinor);
+        }
+        return sb.toString();
+    }
+}
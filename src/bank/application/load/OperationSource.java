@@ -0,0 +1,17 @@
+package bank.application.load;
+
+import java.util.SplittableRandom;
+
+/**
+ * Flux d'opérations partagé par les threads du {@link LoadRunner}.
+ */
+public interface OperationSource {
+
+    /**
+     * Opération suivante, ou null quand le flux est épuisé. Appelée en
+     * concurrence par tous les threads.
+     *
+     * @param random Générateur propre au thread appelant
+     */
+    Operation next(SplittableRandom random);
+}
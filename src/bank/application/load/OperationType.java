@@ -0,0 +1,18 @@
+package bank.application.load;
+
+/**
+ * Types d'opération d'une charge de test.
+ */
+public enum OperationType {
+    // Lectures
+    BALANCE,
+    HISTORY,
+    // Écritures
+    DEPOSIT,
+    WITHDRAW,
+    TRANSFER;
+
+    public boolean isRead() {
+        return this == BALANCE || this == HISTORY;
+    }
+}
@@ -0,0 +1,98 @@
+package bank.application.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Génère une charge mixte de lectures et d'écritures.
+ *
+ * - readRatio : part des lectures (solde 3 fois sur 4, dernière page
+ *   d'historique sinon). Les écritures sont des transferts (60 %), des dépôts
+ *   (20 %) et des retraits (20 %), de 0.01 à 200.00 EUR.
+ * - zipfExponent : concentration des opérations sur quelques comptes. Les
+ *   rangs de la loi de Zipf sont attribués aux comptes dans un ordre mélangé
+ *   (seed) : les comptes chauds ne sont pas les premiers créés.
+ * - failureRate : part des opérations rendues invalides à dessein (compte
+ *   inconnu, montant nul ou hors limites). S'y ajoutent les échecs
+ *   « naturels », par exemple un retrait sans provision.
+ */
+public class WorkloadGenerator implements OperationSource {
+
+    static final String UNKNOWN_ACCOUNT = "XX-INCONNU";
+
+    private static final double TRANSFER_SHARE = 0.6;
+    private static final double DEPOSIT_SHARE = 0.2;
+    private static final double BALANCE_SHARE = 0.75;
+    private static final long MAX_AMOUNT_MINOR = 20_000;
+    // Retrait invalide : au-delà de tout solde et découvert raisonnables
+    private static final long OVERSIZED_AMOUNT_MINOR = 100_000_000_000L;
+
+    private final String[] accountsByRank;
+    private final ZipfDistribution zipf;
+    private final double readRatio;
+    private final double failureRate;
+    private final AtomicLong remaining;
+
+    /**
+     * @param accountIds Comptes visés (au moins 2)
+     * @param operations Nombre total d'opérations générées
+     * @param readRatio Part des lectures, entre 0 et 1
+     * @param zipfExponent Exposant de la loi de Zipf (0 = uniforme)
+     * @param failureRate Part des opérations invalides, entre 0 et 1
+     * @param seed Graine de l'attribution des rangs aux comptes
+     */
+    public WorkloadGenerator(List<String> accountIds, long operations, double readRatio,
+                             double zipfExponent, double failureRate, long seed) {
+        if (accountIds.size() < 2) {
+            throw new IllegalArgumentException("at least 2 accounts are required");
+        }
+        if (readRatio < 0 || readRatio > 1 || failureRate < 0 || failureRate > 1) {
+            throw new IllegalArgumentException("readRatio and failureRate must be in [0, 1]");
+        }
+        List<String> shuffled = new ArrayList<>(accountIds);
+        Collections.shuffle(shuffled, new Random(seed));
+        this.accountsByRank = shuffled.toArray(new String[0]);
+        this.zipf = new ZipfDistribution(accountsByRank.length, zipfExponent);
+        this.readRatio = readRatio;
+        this.failureRate = failureRate;
+        this.remaining = new AtomicLong(operations);
+    }
+
+    @Override
+    public Operation next(SplittableRandom random) {
+        if (remaining.getAndDecrement() <= 0) {
+            return null;
+        }
+        boolean invalid = random.nextDouble() < failureRate;
+        String account = accountsByRank[zipf.sample(random)];
+        if (random.nextDouble() < readRatio) {
+            String target = invalid ? UNKNOWN_ACCOUNT : account;
+            return random.nextDouble() < BALANCE_SHARE
+                    ? Operation.balance(target) : Operation.history(target);
+        }
+
+        long amount = 1 + random.nextLong(MAX_AMOUNT_MINOR);
+        double kind = random.nextDouble();
+        if (kind < TRANSFER_SHARE) {
+            String to = invalid ? UNKNOWN_ACCOUNT : otherAccount(account, random);
+            return Operation.transfer(account, to, amount);
+        }
+        if (kind < TRANSFER_SHARE + DEPOSIT_SHARE) {
+            return Operation.deposit(account, invalid ? 0 : amount);
+        }
+        return Operation.withdraw(account, invalid ? OVERSIZED_AMOUNT_MINOR : amount);
+    }
+
+    // Destinataire suivant la même loi, distinct de l'émetteur
+    private String otherAccount(String from, SplittableRandom random) {
+        String to = accountsByRank[zipf.sample(random)];
+        while (to.equals(from)) {
+            to = accountsByRank[random.nextInt(accountsByRank.length)];
+        }
+        return to;
+    }
+}
@@ -0,0 +1,49 @@
+package bank.application.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Loi de Zipf sur les rangs 0..n-1 : P(rang k) proportionnelle à
+ * 1 / (k + 1)^exponent. exponent = 0 donne une loi uniforme ; vers 1, quelques
+ * rangs concentrent l'essentiel des tirages (comptes « chauds »).
+ *
+ * La fonction de répartition est précalculée (n doubles) ; un tirage est une
+ * recherche dichotomique, O(log n).
+ */
+public final class ZipfDistribution {
+    private final double[] cdf;
+
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be > 0");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("exponent must be >= 0");
+        }
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cdf[k] /= sum;
+        }
+    }
+
+    public int size() {
+        return cdf.length;
+    }
+
+    /**
+     * Tire un rang (0 = le plus fréquent).
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return Math.min(index, cdf.length - 1);
+    }
+}
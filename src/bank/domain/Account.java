@@ -3,29 +3,78 @@ package bank.domain;
 import bank.domain.fees.FeePolicy;
 import bank.domain.fees.NoFeePolicy;
 import bank.domain.observer.AccountObserver;
+import bank.domain.observer.EventBus;
 import bank.errors.BusinessRuleViolation;
+import bank.infrastructure.LogLevel;
 import bank.infrastructure.Logger;
+import bank.infrastructure.metrics.MetricsRegistry;
+import bank.infrastructure.metrics.OperationMetrics;
 
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.Stream;
 
+/**
+ * Compte bancaire. Le solde (en centimes, voir Money) et son numéro de
+ * version forment un seul état immuable, remplacé par compareAndSet : chaque
+ * modification du solde incrémente la version.
+ *
+ * Deux modes de concurrence (voir {@link ConcurrencyMode}) :
+ * - LOCKED (défaut) : retrait et dépôt s'exécutent sous le verrou du compte ;
+ * - OPTIMISTIC : retrait et dépôt valident leur nouvel état par CAS, sans
+ *   verrou, et recommencent (règles comprises) si le solde a changé entre la
+ *   lecture et la validation.
+ * Dans les deux modes, les transactions sont ajoutées à l'historique dans
+ * l'ordre des versions, sous le verrou de l'historique (section courte, sans
+ * calcul ni log). Ce verrou est distinct de celui du compte, que
+ * Bank.transfer garde pendant qu'il attend son tour.
+ * Les observateurs sont notifiés ensuite, hors de ce verrou, dans le même
+ * ordre (voir deliverEvents) : un observateur peut donc opérer sur le compte.
+ */
 public abstract class Account {
+    // Pour les calculs d'intérêts (creditInterest) : rien à créditer
+    protected static final long NO_INTEREST = -1;
+
     protected final String accountNumber;
-    protected double balance;
-    protected final List<Transaction> history = new ArrayList<>();
+    // Solde + version ; lecture sans verrou depuis d'autres threads
+    private final AtomicReference<BalanceState> state;
+    // Dernière version dont les transactions sont dans l'historique (sous historyLock)
+    private long publishedVersion;
+    private volatile ConcurrencyMode concurrencyMode = ConcurrencyMode.LOCKED;
+    // Historique en colonnes primitives (voir TransactionHistory)
+    private final TransactionHistory history = new TransactionHistory();
+    private final Object historyLock = new Object();
+    // Transactions publiées, pas encore notifiées (ordre des versions)
+    private final ConcurrentLinkedQueue<PendingEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    // Thread qui notifie en ce moment les observateurs du compte, ou null
+    private final AtomicReference<Thread> notifier = new AtomicReference<>();
     
   
     private FeePolicy feePolicy = new NoFeePolicy(); // Par défaut, pas de frais
   
-    private List<AccountObserver> observers = new ArrayList<>();
+    // Créée au premier addObserver : la plupart des comptes n'en ont pas (voir EventBus)
+    private volatile List<AccountObserver> observers;
+    // Bus de la banque du compte (affecté par Bank.addAccount)
+    private volatile EventBus eventBus;
+    
+    // Logger statique (du TP4), catégorie échantillonnable "account"
+    private static Logger logger = new Logger("account");
     
-    // Logger statique (du TP4)
-    private static Logger logger = new Logger();
+    private static final OperationMetrics WITHDRAW_METRICS =
+        MetricsRegistry.global().operation("account.withdraw");
+    private static final OperationMetrics DEPOSIT_METRICS =
+        MetricsRegistry.global().operation("account.deposit");
 
     protected Account(String accountNumber, double initial) {
         this.accountNumber = accountNumber;
-        this.balance = initial;
+        this.state = new AtomicReference<>(new BalanceState(Money.ofMajor(initial), 0, null));
     }
 
     // ============================================
@@ -39,20 +88,70 @@ public abstract class Account {
         return feePolicy;
     }
 
+    /**
+     * À choisir avant d'utiliser le compte depuis plusieurs threads.
+     */
+    public void setConcurrencyMode(ConcurrencyMode concurrencyMode) {
+        this.concurrencyMode = concurrencyMode;
+    }
+
+    public ConcurrencyMode getConcurrencyMode() {
+        return concurrencyMode;
+    }
+
     // ============================================
     // OBSERVER PATTERN : Gestion des observateurs
     // ============================================
+    
+    /**
+     * Les observateurs sont notifiés dans le thread de la transaction, dans
+     * l'ordre des transactions du compte, après la mise à jour du solde et de
+     * l'historique. Une exception d'observateur est relancée à l'appelant de
+     * l'opération. En mode OPTIMISTIC, si un autre thread notifie déjà le
+     * compte, c'est lui qui livre la transaction et l'exception est seulement
+     * loguée. Une opération faite par un observateur sur le même compte est
+     * notifiée après l'observateur courant.
+     * Pour un observateur lent, l'envelopper dans un
+     * {@link bank.domain.observer.AsyncObserver}.
+     * Ajout et retrait sont sûrs pendant une notification (liste copy-on-write).
+     * Pour observer tous les comptes d'une banque, préférer
+     * {@link Bank#getEventBus()} : un seul abonnement, filtrable.
+     */
     public void addObserver(AccountObserver obs) {
-        observers.add(obs);
+        List<AccountObserver> list = observers;
+        if (list == null) {
+            synchronized (this) {
+                if (observers == null) {
+                    observers = new CopyOnWriteArrayList<>();
+                }
+                list = observers;
+            }
+        }
+        list.add(obs);
     }
     
     public void removeObserver(AccountObserver obs) {
-        observers.remove(obs);
+        List<AccountObserver> list = observers;
+        if (list != null) {
+            list.remove(obs);
+        }
+    }
+    
+    // Appelé par Bank.addAccount
+    void attachEventBus(EventBus bus) {
+        this.eventBus = bus;
     }
     
     protected void notifyObservers(Transaction tx) {
-        for (AccountObserver obs : observers) {
-            obs.onTransaction(this, tx);
+        List<AccountObserver> list = observers;
+        if (list != null) {
+            for (AccountObserver obs : list) {
+                obs.onTransaction(this, tx);
+            }
+        }
+        EventBus bus = eventBus;
+        if (bus != null) {
+            bus.publish(this, tx);
         }
     }
 
@@ -63,29 +162,93 @@ public abstract class Account {
     /**
      * Template Method : définit l'algorithme de retrait.
      * Cette méthode est finale, elle ne peut pas être overridée.
+     * Exécutée sous le verrou du compte en mode LOCKED, sans verrou en mode
+     * OPTIMISTIC (voir {@link ConcurrencyMode}).
      */
     public final void withdraw(double amount) {
+        withdrawMinor(Money.ofMajor(amount));
+    }
+    
+    /**
+     * Retrait d'un montant en centimes.
+     */
+    public final void withdrawMinor(long amount) {
+        if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+            withdrawAndLog(amount);
+        } else {
+            synchronized (this) {
+                withdrawAndLog(amount);
+            }
+        }
+    }
+    
+    private void withdrawAndLog(long amount) {
+        withdrawWithoutNotify(amount);
+        // Étape 6 : Notifier les observateurs
+        deliverEvents();
+    }
+    
+    /**
+     * Étapes 1 à 5 du retrait, sans notifier les observateurs.
+     * Utilisé par {@link Bank#transfer} : une exception levée ici signifie que
+     * le solde n'a pas été modifié ; celles de deliverEvents arrivent après.
+     *
+     * @return les frais prélevés, en centimes
+     * @throws BusinessRuleViolation si le retrait est refusé (rien n'est modifié)
+     */
+    final long withdrawWithoutNotify(long amount) {
+        long start = System.nanoTime();
+        long fee;
+        try {
+            fee = commitWithdraw(amount);
+        } catch (RuntimeException e) {
+            WITHDRAW_METRICS.recordFailure(start, e);
+            throw e;
+        }
+        
+        // Étape 5 : Logger
+        logger.logAmount(LogLevel.INFO, "Withdraw OK: {} from {} (fee: {})", amount, accountNumber, fee);
+        WITHDRAW_METRICS.recordSuccess(start);
+        return fee;
+    }
+    
+    /**
+     * Étapes 1 à 4 du retrait, sans log ni notification.
+     * Utilisé par {@link Bank#transferBatch} qui journalise une fois par lot
+     * (sous les verrous des comptes).
+     * 
+     * @return les frais prélevés, en centimes
+     * @throws BusinessRuleViolation si le retrait est refusé (rien n'est modifié)
+     */
+    final long commitWithdraw(long amount) {
         // Étape 1 : Vérification commune du montant
         checkAmount(amount);
         
-        // Étape 2 : Vérifications spécifiques (hook method)
-        checkSpecificRules(amount);
-        
-        // Étape 3 : Calculer les frais selon la stratégie
-        double fee = feePolicy.computeFee(amount);
+        // Étape 2 : Calculer les frais selon la stratégie
+        long fee = feePolicy.computeFee(amount);
         
-        // Étape 4 : Appliquer le retrait (hook method)
-        applyWithdraw(amount, fee);
-        
-        // Étape 5 : Logger
-        logger.logInfo(String.format("Withdraw OK: %.2f from %s (fee: %.2f)", 
-            amount, accountNumber, fee));
+        while (true) {
+            BalanceState current = state.get();
+            
+            // Étape 3 : Vérifications spécifiques (hook method), sur ce solde
+            checkSpecificRules(amount, current.balance);
+            
+            // Étape 4 : Valider retrait et frais ensemble ; si le solde a
+            // changé depuis la lecture, tout recommencer avec le nouveau
+            long afterWithdraw = current.balance - amount;
+            BalanceState next = current.next(afterWithdraw - fee);
+            if (state.compareAndSet(current, next)) {
+                publish(next.version, TransactionType.WITHDRAW, amount, afterWithdraw,
+                        fee > 0 ? TransactionType.FEE : null, fee, next.balance);
+                return fee;
+            }
+        }
     }
     
     /**
      * Vérification commune : le montant doit être > 0
      */
-    private void checkAmount(double amount) {
+    private void checkAmount(long amount) {
         if (amount <= 0) {
             throw new BusinessRuleViolation("montant invalide");
         }
@@ -93,33 +256,160 @@ public abstract class Account {
     
     /**
      * Hook method : vérifications spécifiques à chaque type de compte
-     * À implémenter dans les sous-classes
-     */
-    protected abstract void checkSpecificRules(double amount);
-    
-    /**
-     * Hook method : application du retrait spécifique à chaque type de compte
-     * À implémenter dans les sous-classes
+     * À implémenter dans les sous-classes (montants en centimes).
+     * Ne doit dépendre que de ses arguments : elle peut être rappelée si le
+     * solde change avant la validation du retrait.
+     *
+     * @param amount Montant du retrait
+     * @param balance Solde sur lequel le retrait sera appliqué
      */
-    protected abstract void applyWithdraw(double amount, double fee);
+    protected abstract void checkSpecificRules(long amount, long balance);
 
     // ============================================
     // Méthode deposit (existante, améliorée)
     // ============================================
     public final void deposit(double amount) {
+        depositMinor(Money.ofMajor(amount));
+    }
+    
+    /**
+     * Dépôt d'un montant en centimes.
+     */
+    public final void depositMinor(long amount) {
+        if (concurrencyMode == ConcurrencyMode.OPTIMISTIC) {
+            depositAndLog(amount);
+        } else {
+            synchronized (this) {
+                depositAndLog(amount);
+            }
+        }
+    }
+    
+    private void depositAndLog(long amount) {
+        depositWithoutNotify(amount);
+        deliverEvents();
+    }
+    
+    // Dépôt sans notification (voir withdrawWithoutNotify)
+    final void depositWithoutNotify(long amount) {
+        long start = System.nanoTime();
+        try {
+            commitDeposit(amount);
+        } catch (RuntimeException e) {
+            DEPOSIT_METRICS.recordFailure(start, e);
+            throw e;
+        }
+        logger.logAmount(LogLevel.INFO, "Deposit OK: {} to {}", amount, accountNumber);
+        DEPOSIT_METRICS.recordSuccess(start);
+    }
+    
+    // Dépôt sans log ni notification (voir commitWithdraw)
+    final void commitDeposit(long amount) {
         // PRE: amount > 0, else throw BusinessRuleViolation
         if (amount <= 0) {
             throw new BusinessRuleViolation("montant invalide");
         }
         // POST: balance += amount
-        balance += amount;
-        Transaction tx = new Transaction(
-            TransactionType.DEPOSIT,
-            amount,
-            balance
-        );
-        recordTransaction(tx);
-        logger.logInfo(String.format("Deposit OK: %.2f to %s", amount, accountNumber));
+        BalanceState next = add(amount);
+        publish(next.version, TransactionType.DEPOSIT, amount, next.balance, null, 0, 0);
+    }
+
+    /**
+     * Prélève des frais périodiques (tenue de compte), en centimes.
+     * Contrairement au retrait, aucune règle de découvert ne s'applique et
+     * rien n'est écrit dans le log. Pour une fin de période, voir closePeriod.
+     */
+    public final synchronized void chargeFeeMinor(long fee) {
+        if (fee <= 0) {
+            throw new BusinessRuleViolation("montant invalide");
+        }
+        BalanceState next = add(-fee);
+        publish(next.version, TransactionType.FEE, fee, next.balance, null, 0, 0);
+        deliverEvents();
+    }
+
+    /**
+     * Crédite des intérêts calculés sur le solde (voir SavingsAccount,
+     * BusinessAccount). Si le solde change avant la validation, le calcul est
+     * refait sur le nouveau solde.
+     *
+     * @param interestOf Intérêts (centimes) pour un solde, ou NO_INTEREST
+     * @return Les intérêts crédités, ou 0
+     */
+    protected final long creditInterest(LongUnaryOperator interestOf) {
+        while (true) {
+            BalanceState current = state.get();
+            long interest = interestOf.applyAsLong(current.balance);
+            if (interest == NO_INTEREST) {
+                return 0;
+            }
+            BalanceState next = current.next(current.balance + interest);
+            if (state.compareAndSet(current, next)) {
+                publish(next.version, TransactionType.INTEREST, interest, next.balance, null, 0, 0);
+                deliverEvents();
+                return interest;
+            }
+        }
+    }
+
+    /**
+     * Clôture de période (voir PeriodEndEngine) : intérêts (periodInterest)
+     * puis frais calculés sur le solde, en une seule mise à jour qui marque
+     * aussi la période comme clôturée. Solde, transactions et marque étant
+     * validés ensemble, un état sauvegardé contient tout ou rien : après une
+     * reprise, un compte déjà clôturé pour cette période n'est pas recompté.
+     *
+     * @param periodId Identifiant de la période (ex. "2025-12")
+     * @param fees Frais de période, calculés sur le solde après intérêts, ou null
+     * @return Intérêts et frais appliqués, ou null si la période était déjà clôturée
+     */
+    public final synchronized PeriodClose closePeriod(String periodId, RoundingMode rounding, FeePolicy fees) {
+        while (true) {
+            BalanceState current = state.get();
+            if (periodId.equals(current.closedPeriod)) {
+                return null;
+            }
+            long interest = periodInterest(current.balance, rounding);
+            long afterInterest = interest == NO_INTEREST ? current.balance : current.balance + interest;
+            long fee = fees == null ? 0 : fees.computeFee(Math.max(0, afterInterest));
+            BalanceState next = new BalanceState(afterInterest - fee, current.version + 1, periodId);
+            if (state.compareAndSet(current, next)) {
+                publish(next.version,
+                        interest == NO_INTEREST ? null : TransactionType.INTEREST, interest, afterInterest,
+                        fee > 0 ? TransactionType.FEE : null, fee, next.balance);
+                deliverEvents();
+                return new PeriodClose(interest == NO_INTEREST ? 0 : interest, fee);
+            }
+        }
+    }
+
+    /**
+     * Intérêts de période pour un solde, en centimes, ou NO_INTEREST.
+     * Par défaut aucun ; redéfini par les comptes rémunérés.
+     */
+    protected long periodInterest(long balance, RoundingMode rounding) {
+        return NO_INTEREST;
+    }
+
+    /**
+     * Dernière période clôturée par closePeriod, ou null.
+     */
+    public final String getClosedPeriod() {
+        return state.get().closedPeriod;
+    }
+
+    /**
+     * Restaure la marque de période (chargement d'un snapshot, rejeu du journal).
+     */
+    public synchronized void setClosedPeriod(String periodId) {
+        while (true) {
+            BalanceState current = state.get();
+            BalanceState next = new BalanceState(current.balance, current.version + 1, periodId);
+            if (state.compareAndSet(current, next)) {
+                publish(next.version, null, 0, 0, null, 0, 0);
+                return;
+            }
+        }
     }
 
     // ============================================
@@ -130,12 +420,103 @@ public abstract class Account {
     }
     
     public final double getBalance() {
-        return balance;
+        return Money.toMajor(getBalanceMinor());
+    }
+    
+    public final long getBalanceMinor() {
+        return state.get().balance;
+    }
+    
+    /**
+     * Version du solde : incrémentée à chaque modification.
+     */
+    public final long getVersion() {
+        return state.get().version;
+    }
+    
+    // Solde et version lus ensemble (voir compensateMinor)
+    final BalanceState balanceState() {
+        return state.get();
+    }
+    
+    /**
+     * Solde et transactions de l'historique depuis historyFrom, lus ensemble :
+     * la vue contient exactement les transactions des versions jusqu'à celle
+     * du solde (attend, si besoin, qu'une version validée soit publiée).
+     * Utilisé par les sérialiseurs et JournaledBankRepository.
+     */
+    public final Snapshot snapshot(int historyFrom) {
+        synchronized (historyLock) {
+            boolean interrupted = false;
+            BalanceState current;
+            while ((current = state.get()).version != publishedVersion) {
+                try {
+                    historyLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            int from = Math.min(Math.max(historyFrom, 0), history.size());
+            return new Snapshot(current.balance, current.version, current.closedPeriod,
+                    history.view(from, history.size()));
+        }
     }
     
-    // Pour le rollback dans Bank (TP4)
     public void setBalance(double balance) {
-        this.balance = balance;
+        setBalanceMinor(Money.ofMajor(balance));
+    }
+    
+    /**
+     * Remplace le solde (chargement d'un snapshot, rejeu du journal).
+     * Aucune transaction n'est ajoutée à l'historique.
+     */
+    public synchronized void setBalanceMinor(long balance) {
+        while (true) {
+            BalanceState current = state.get();
+            BalanceState next = current.next(balance);
+            if (state.compareAndSet(current, next)) {
+                publish(next.version, null, 0, 0, null, 0, 0);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Mise à jour compensatoire (rollback de {@link Bank#transfer}) : annule
+     * une opération validée juste après l'état before.
+     * Si aucune autre opération n'a eu lieu depuis (version = before + 1), le
+     * solde revient exactement à celui de before ; sinon seul delta est ajouté
+     * au solde courant, sans effacer les opérations concurrentes (mode
+     * OPTIMISTIC). Aucune transaction n'est ajoutée à l'historique.
+     *
+     * @param before État lu avant l'opération à annuler
+     * @param delta Effet inverse de l'opération, en centimes
+     */
+    final void compensateMinor(BalanceState before, long delta) {
+        while (true) {
+            BalanceState current = state.get();
+            long restored = current.version == before.version + 1
+                    ? before.balance : current.balance + delta;
+            BalanceState next = current.next(restored);
+            if (state.compareAndSet(current, next)) {
+                publish(next.version, null, 0, 0, null, 0, 0);
+                return;
+            }
+        }
+    }
+
+    // Ajoute delta au solde (CAS, réessayé en cas de conflit) ; retourne le nouvel état
+    private BalanceState add(long delta) {
+        while (true) {
+            BalanceState current = state.get();
+            BalanceState next = current.next(current.balance + delta);
+            if (state.compareAndSet(current, next)) {
+                return next;
+            }
+        }
     }
 
     // ============================================
@@ -143,43 +524,313 @@ public abstract class Account {
     // ============================================
     
     /**
-     * Enregistre une transaction et notifie les observateurs
+     * Enregistre les transactions de la version validée (au plus deux ; type
+     * null = aucune) directement dans les colonnes de l'historique et, s'il y
+     * a des observateurs, les met en attente de notification (voir
+     * deliverEvents) : un objet Transaction n'est créé que dans ce cas. Les
+     * versions sont publiées dans l'ordre : un thread dont la version
+     * précédente n'est pas encore publiée (mode OPTIMISTIC) attend son tour.
+     * Aucun observateur n'est appelé ici.
+     */
+    private void publish(long version, TransactionType type1, long amount1, long balance1,
+                         TransactionType type2, long amount2, long balance2) {
+        synchronized (historyLock) {
+            boolean interrupted = false;
+            while (publishedVersion != version - 1) {
+                try {
+                    historyLock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            try {
+                if (type1 != null || type2 != null) {
+                    long now = TransactionHistory.nowEpochNanos();
+                    // ← OBSERVER PATTERN : notifier après ajout, hors du verrou
+                    boolean notify = hasListeners();
+                    if (type1 != null) {
+                        long stamped = history.append(now, type1, amount1, balance1);
+                        if (notify) {
+                            queueEvent(stamped, type1, amount1, balance1);
+                        }
+                    }
+                    if (type2 != null) {
+                        long stamped = history.append(now, type2, amount2, balance2);
+                        if (notify) {
+                            queueEvent(stamped, type2, amount2, balance2);
+                        }
+                    }
+                }
+            } finally {
+                publishedVersion = version;
+                historyLock.notifyAll();
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    private void queueEvent(long nanos, TransactionType type, long amount, long balanceAfter) {
+        Transaction tx = Transaction.ofMinor(TransactionHistory.fromEpochNanos(nanos), type, amount, balanceAfter);
+        pendingEvents.add(new PendingEvent(tx, Thread.currentThread()));
+    }
+    
+    // Au moins un observateur ou un abonné du bus : sinon rien n'est mis en attente
+    private boolean hasListeners() {
+        List<AccountObserver> list = observers;
+        EventBus bus = eventBus;
+        return (list != null && !list.isEmpty()) || (bus != null && bus.getSubscriberCount() > 0);
+    }
+    
+    /**
+     * Notifie les observateurs des transactions publiées, dans l'ordre, sans
+     * verrou d'historique. Un seul thread notifie à la fois : si un autre
+     * thread le fait déjà, il livrera aussi nos transactions ; si c'est le
+     * thread courant (observateur qui opère sur le compte), elles sont livrées
+     * après l'observateur en cours.
+     * Une exception d'observateur est relancée au thread de la transaction
+     * concernée, après la livraison des autres ; celle d'une transaction
+     * d'un autre thread est seulement loguée.
      */
-    protected void recordTransaction(Transaction tx) {
-        history.add(tx);
-        notifyObservers(tx); // ← OBSERVER PATTERN : notifier après ajout
+    final void deliverEvents() {
+        Thread me = Thread.currentThread();
+        RuntimeException failure = null;
+        while (!pendingEvents.isEmpty() && notifier.compareAndSet(null, me)) {
+            try {
+                PendingEvent event;
+                while ((event = pendingEvents.poll()) != null) {
+                    try {
+                        notifyObservers(event.tx);
+                    } catch (RuntimeException e) {
+                        if (event.origin != me) {
+                            logger.logError("Observateur en échec sur " + accountNumber + " : " + e);
+                        } else if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+            } finally {
+                notifier.set(null);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+    
+    /**
+     * Restaure un historique sauvegardé (chargement d'un snapshot).
+     * Les transactions sont ajoutées telles quelles, sans notifier les
+     * observateurs ni écrire dans le log ; le solde n'est pas modifié.
+     *
+     * @throws IllegalArgumentException si les horodatages ne sont pas
+     *         chronologiques (rien n'est alors restauré)
+     */
+    public void restoreHistory(Collection<Transaction> transactions) {
+        synchronized (historyLock) {
+            history.restore(transactions);
+        }
     }
     
-    public List<Transaction> history() {
-        return new ArrayList<>(history);
+    /**
+     * Historique complet, en lecture seule et sans copie (voir HistoryView).
+     * Les transactions ajoutées ensuite n'apparaissent pas dans la vue.
+     */
+    public HistoryView history() {
+        synchronized (historyLock) {
+            return history.view(0, history.size());
+        }
     }
     
-    // Question bonus : filtre par type de transaction
+    /**
+     * Page d'historique : au plus limit transactions à partir de fromIndex.
+     * La page suivante commence à fromIndex + page.size() ; les indices restent
+     * stables puisque l'historique ne fait que croître.
+     */
+    public HistoryView history(int fromIndex, int limit) {
+        synchronized (historyLock) {
+            if (fromIndex < 0 || limit < 0) {
+                throw new IllegalArgumentException("Pagination invalide : " + fromIndex + ", " + limit);
+            }
+            int from = Math.min(fromIndex, history.size());
+            int to = (int) Math.min((long) from + limit, history.size());
+            return history.view(from, to);
+        }
+    }
+    
+    /**
+     * Flux ordonné sur l'historique (parallélisable, sans copie).
+     */
+    public Stream<Transaction> historyStream() {
+        return history().stream();
+    }
+    
+    // Question bonus : filtre par type de transaction, en O(k) via l'index par type
     public List<Transaction> findByType(TransactionType type) {
-        List<Transaction> result = new ArrayList<>();
-        for (Transaction tx : history) {
-            if (tx.getType() == type) {
-                result.add(tx);
+        synchronized (historyLock) {
+            int count = history.countOf(type);
+            List<Transaction> result = new ArrayList<>(count);
+            for (int n = 0; n < count; n++) {
+                result.add(history.get(history.positionOf(type, n)));
             }
+            return result;
         }
-        return result;
     }
     
-    // Rechercher par intervalle de dates
+    /**
+     * Nombre de transactions d'un type. O(1).
+     */
+    public int countOf(TransactionType type) {
+        synchronized (historyLock) {
+            return history.countOf(type);
+        }
+    }
+    
+    /**
+     * Somme des montants des transactions d'un type (intérêts perçus, frais
+     * payés, volume des dépôts...). O(1).
+     */
+    public double totalOf(TransactionType type) {
+        return Money.toMajor(totalOfMinor(type));
+    }
+    
+    public long totalOfMinor(TransactionType type) {
+        synchronized (historyLock) {
+            return history.sumOf(type);
+        }
+    }
+    
+    public double getTotalFeesPaid() {
+        return totalOf(TransactionType.FEE);
+    }
+    
+    // Rechercher par intervalle de dates UTC (bornes incluses), par dichotomie : O(log n + k)
     public List<Transaction> findByDateRange(LocalDateTime from, LocalDateTime to) {
-        List<Transaction> result = new ArrayList<>();
-        for (Transaction tx : history) {
-            if (!tx.getTimestamp().isBefore(from) && !tx.getTimestamp().isAfter(to)) {
-                result.add(tx);
+        synchronized (historyLock) {
+            int start = history.indexOf(TransactionHistory.toEpochNanos(from), false);
+            int end = history.indexOf(TransactionHistory.toEpochNanos(to), true);
+            List<Transaction> result = new ArrayList<>(Math.max(0, end - start));
+            for (int i = start; i < end; i++) {
+                result.add(history.get(i));
             }
+            return result;
         }
-        return result;
     }
 
-    // Trier l'historique
-    public List<Transaction> getSortedHistory() {
-        List<Transaction> sorted = new ArrayList<>(history);
-        sorted.sort((t1, t2) -> t1.getTimestamp().compareTo(t2.getTimestamp()));
-        return sorted;
+    /**
+     * Solde du compte à une date donnée (UTC) : solde après la dernière transaction
+     * antérieure ou égale à timestamp. Avant la première transaction, solde
+     * d'ouverture. O(log n).
+     */
+    public double balanceAsOf(LocalDateTime timestamp) {
+        return Money.toMajor(balanceAsOfMinor(timestamp));
+    }
+
+    public long balanceAsOfMinor(LocalDateTime timestamp) {
+        synchronized (historyLock) {
+            if (history.size() == 0) {
+                return getBalanceMinor();
+            }
+            int last = history.indexOf(TransactionHistory.toEpochNanos(timestamp), true) - 1;
+            if (last >= 0) {
+                return history.balanceAt(last);
+            }
+            return history.balanceAt(0) - history.signedAmountAt(0);
+        }
+    }
+
+    // L'historique est déjà trié par date (voir TransactionHistory)
+    public HistoryView getSortedHistory() {
+        return history();
+    }
+
+    // Transaction en attente de notification, avec le thread qui l'a validée
+    private static final class PendingEvent {
+        final Transaction tx;
+        final Thread origin;
+
+        PendingEvent(Transaction tx, Thread origin) {
+            this.tx = tx;
+            this.origin = origin;
+        }
+    }
+
+    /**
+     * État d'un compte lu par {@link #snapshot(int)}.
+     */
+    public static final class Snapshot {
+        private final long balanceMinor;
+        private final long version;
+        private final String closedPeriod;
+        private final HistoryView history;
+
+        Snapshot(long balanceMinor, long version, String closedPeriod, HistoryView history) {
+            this.balanceMinor = balanceMinor;
+            this.version = version;
+            this.closedPeriod = closedPeriod;
+            this.history = history;
+        }
+
+        public long getBalanceMinor() {
+            return balanceMinor;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getClosedPeriod() {
+            return closedPeriod;
+        }
+
+        // Transactions depuis historyFrom (voir HistoryView.getFromIndex)
+        public HistoryView getHistory() {
+            return history;
+        }
+    }
+
+    /**
+     * Résultat de {@link #closePeriod} (montants en centimes).
+     */
+    public static final class PeriodClose {
+        private final long interestMinor;
+        private final long feeMinor;
+
+        PeriodClose(long interestMinor, long feeMinor) {
+            this.interestMinor = interestMinor;
+            this.feeMinor = feeMinor;
+        }
+
+        public long getInterestMinor() {
+            return interestMinor;
+        }
+
+        public long getFeeMinor() {
+            return feeMinor;
+        }
+    }
+
+    /**
+     * Solde et version, remplacés ensemble par compareAndSet.
+     */
+    static final class BalanceState {
+        final long balance;
+        final long version;
+        // Dernière période clôturée (voir closePeriod), ou null
+        final String closedPeriod;
+
+        BalanceState(long balance, long version, String closedPeriod) {
+            this.balance = balance;
+            this.version = version;
+            this.closedPeriod = closedPeriod;
+        }
+
+        // Version suivante avec un nouveau solde
+        BalanceState next(long newBalance) {
+            return new BalanceState(newBalance, version + 1, closedPeriod);
+        }
     }
-}
\ No newline at end of file
+}
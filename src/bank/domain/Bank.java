@@ -1,30 +1,57 @@
 package bank.domain;
 
+import bank.domain.observer.EventBus;
+import bank.errors.BusinessRuleViolation;
 import bank.errors.InvalidAmountException;
 import bank.errors.UnknownAccountException;
+import bank.infrastructure.LogLevel;
 import bank.infrastructure.Logger;
+import bank.infrastructure.metrics.MetricsRegistry;
+import bank.infrastructure.metrics.OperationMetrics;
 import bank.errors.TransferException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class Bank {
 
-    private List<Account> accounts = new ArrayList<>();
-    private Logger logger = new Logger(); // instance of logger
+    // Nombre de transferts traités sous une même prise de verrous dans transferBatch
+    private static final int BATCH_GROUP_SIZE = 256;
+
+    private static final OperationMetrics TRANSFER_METRICS =
+        MetricsRegistry.global().operation("bank.transfer");
+
+    // Index par numéro de compte : recherche en O(1) et sans verrou
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    // Ordre d'insertion (getAllAccounts, sérialisation), protégé par this
+    private final List<Account> accountOrder = new ArrayList<>();
+    private Logger logger = new Logger("transfer"); // instance of logger
+    // Événements de tous les comptes de la banque
+    private final EventBus eventBus = new EventBus();
 
     // Find account by ID
     private Account findAccountById(String id) {
-        for (Account acc : accounts) {
-            if (acc.getAccountNumber().equals(id)) {
-                return acc;
-            }
-        }
-        return null;
+        return accounts.get(id);
     }
 
-    // Add an account
-    public void addAccount(Account acc) {
-        accounts.add(acc);
+    // Add an account (refuse les numéros de compte en double)
+    public synchronized void addAccount(Account acc) {
+        String id = acc.getAccountNumber();
+        if (accounts.putIfAbsent(id, acc) != null) {
+            throw new BusinessRuleViolation("Compte déjà existant: " + id);
+        }
+        accountOrder.add(acc);
+        acc.attachEventBus(eventBus);
+    }
+    
+    /**
+     * Bus d'événements commun aux comptes de la banque : un abonnement suffit
+     * pour observer tous les comptes, présents et futurs.
+     */
+    public EventBus getEventBus() {
+        return eventBus;
     }
     
     /**
@@ -33,12 +60,41 @@ public class Bank {
      * 
      * @return Liste de tous les comptes
      */
-    public List<Account> getAllAccounts() {
-        return new ArrayList<>(accounts); // Copie défensive
+    public synchronized List<Account> getAllAccounts() {
+        return new ArrayList<>(accountOrder); // Copie défensive
     }
 
-    // Atomic transfer method
+    /**
+     * Transfert atomique et thread-safe.
+     *
+     * Les deux comptes sont verrouillés dans un ordre global (numéro de compte)
+     * pour éviter les interblocages : deux transferts sur des comptes disjoints
+     * s'exécutent en parallèle, deux transferts croisés A->B / B->A se sérialisent.
+     */
     public void transfer(String fromId, String toId, double amount) {
+        // Montant non fini : rejeté comme montant invalide par transferMinor
+        transferMinor(fromId, toId, Double.isFinite(amount) ? Money.ofMajor(amount) : 0);
+    }
+
+    /**
+     * Transfert d'un montant en centimes (voir {@link #transfer}).
+     */
+    public void transferMinor(String fromId, String toId, long amount) {
+        long start = System.nanoTime();
+        try {
+            lockAndTransfer(fromId, toId, amount);
+            TRANSFER_METRICS.recordSuccess(start);
+        } catch (TransferException e) {
+            // Cause réelle de l'échec (ex. BusinessRuleViolation)
+            TRANSFER_METRICS.recordFailure(start, e.getCause() != null ? e.getCause() : e);
+            throw e;
+        } catch (RuntimeException e) {
+            TRANSFER_METRICS.recordFailure(start, e);
+            throw e;
+        }
+    }
+
+    private void lockAndTransfer(String fromId, String toId, long amount) {
         if (fromId.equals(toId)) {
             throw new InvalidAmountException("Impossible de transférer vers le même compte");
         }
@@ -53,38 +109,188 @@ public class Bank {
             throw new UnknownAccountException("Compte introuvable");
         }
 
-        // Save balances for rollback in case of error
-        double oldFromBalance = from.getBalance();
-        double oldToBalance = to.getBalance();
+        Account first  = fromId.compareTo(toId) < 0 ? from : to;
+        Account second = first == from ? to : from;
+
+        synchronized (first) {
+            synchronized (second) {
+                doTransfer(from, to, amount);
+            }
+        }
+    }
+
+    // Appelé avec les verrous des deux comptes
+    private void doTransfer(Account from, Account to, long amount) {
+        String fromId = from.getAccountNumber();
+        String toId = to.getAccountNumber();
+
+        // États avant le transfert, pour la compensation en cas d'erreur
+        Account.BalanceState fromBefore = from.balanceState();
+        Account.BalanceState toBefore = to.balanceState();
 
+        long debit;
         try {
-            // Apply withdrawal and deposit safely
-            from.withdraw(amount);
-            to.deposit(amount);
+            // Règles vérifiées avant toute modification : rien à annuler
+            debit = amount + from.withdrawWithoutNotify(amount);
+        } catch (RuntimeException e) {
+            // Règle métier, frais (FeePolicy), arithmétique (Money)...
+            throw failed(fromId, toId, amount, false, e);
+        }
+
+        // Retrait validé : toute exception à partir d'ici (observateur, bus,
+        // quel que soit son type) est compensée
+        try {
+            from.deliverEvents();
+        } catch (RuntimeException e) {
+            from.compensateMinor(fromBefore, debit);
+            throw failed(fromId, toId, amount, true, e);
+        }
 
-            // Log successful transfer
-            logger.logInfo(String.format("Transfert OK : %.2f EUR %s -> %s", amount, fromId, toId));
-        } catch (Exception e) {
-            // Rollback balances
-            from.setBalance(oldFromBalance);
-            to.setBalance(oldToBalance);
+        // Un dépôt > 0 est toujours validé : seul un observateur peut échouer
+        to.depositWithoutNotify(amount);
+        try {
+            to.deliverEvents();
+        } catch (RuntimeException e) {
+            from.compensateMinor(fromBefore, debit);
+            to.compensateMinor(toBefore, -amount);
+            throw failed(fromId, toId, amount, true, e);
+        }
 
-            // Log failure
-            logger.logError(String.format("Transfert FAILED : %.2f EUR %s -> %s : %s",
-                    amount, fromId, toId, e.getMessage()));
+        // Log successful transfer
+        logger.logAmount(LogLevel.INFO, "Transfert OK : {} EUR {} -> {}", amount, fromId, toId);
+    }
 
-            // Wrap and throw transfer exception
-            throw new TransferException("Échec du transfert", e);
+    // compensated : le retrait (et peut-être le dépôt) a été écrit dans le log
+    // puis annulé ; la ligne le signale pour LogReplay
+    private TransferException failed(String fromId, String toId, long amount, boolean compensated,
+                                     RuntimeException e) {
+        logger.logError(String.format("Transfert FAILED : %s EUR %s -> %s%s : %s",
+                Money.format(amount), fromId, toId, compensated ? " (annulé)" : "", e.getMessage()));
+        return new TransferException("Échec du transfert", e);
+    }
+
+    /**
+     * Applique une liste de transferts en un seul appel.
+     *
+     * Les transferts sont traités dans l'ordre, par groupes de BATCH_GROUP_SIZE :
+     * les comptes d'un groupe sont verrouillés une seule fois (dans l'ordre global
+     * des numéros de compte, comme transfer). Un échec n'interrompt pas le lot ;
+     * il est reporté dans le résultat. Comme pour transfer, un transfert dont
+     * un observateur échoue après la validation est annulé (FAILED).
+     * Une seule ligne de log est écrite par lot (plus une par transfert FAILED).
+     *
+     * @param requests Les transferts à appliquer
+     * @return Le résultat de chaque transfert, dans l'ordre des requêtes
+     */
+    public List<TransferOutcome> transferBatch(List<TransferRequest> requests) {
+        List<TransferOutcome> outcomes = new ArrayList<>(requests.size());
+        int[] counts = new int[TransferOutcome.values().length];
+
+        for (int start = 0; start < requests.size(); start += BATCH_GROUP_SIZE) {
+            List<TransferRequest> group =
+                requests.subList(start, Math.min(start + BATCH_GROUP_SIZE, requests.size()));
+
+            // Comptes du groupe, triés par numéro pour un verrouillage sans interblocage
+            TreeMap<String, Account> involved = new TreeMap<>();
+            for (TransferRequest req : group) {
+                addIfKnown(involved, req.getFromId());
+                addIfKnown(involved, req.getToId());
+            }
+            Account[] locks = involved.values().toArray(new Account[0]);
+
+            lockAllAndRun(locks, 0, () -> {
+                for (TransferRequest req : group) {
+                    TransferOutcome outcome = applyInBatch(req, involved);
+                    outcomes.add(outcome);
+                    counts[outcome.ordinal()]++;
+                }
+            });
+        }
+
+        logger.logInfo(String.format("Batch transferts : %d demandes, %d OK, %d fonds insuffisants, "
+                + "%d comptes inconnus, %d invalides, %d en échec",
+                requests.size(),
+                counts[TransferOutcome.OK.ordinal()],
+                counts[TransferOutcome.INSUFFICIENT_FUNDS.ordinal()],
+                counts[TransferOutcome.UNKNOWN_ACCOUNT.ordinal()],
+                counts[TransferOutcome.INVALID_REQUEST.ordinal()],
+                counts[TransferOutcome.FAILED.ordinal()]));
+        return outcomes;
+    }
+
+    private void addIfKnown(Map<String, Account> involved, String id) {
+        Account acc = findAccountById(id);
+        if (acc != null) {
+            involved.put(id, acc);
+        }
+    }
+
+    // Prend récursivement les verrous de locks[i..] puis exécute action
+    private void lockAllAndRun(Account[] locks, int i, Runnable action) {
+        if (i == locks.length) {
+            action.run();
+            return;
+        }
+        synchronized (locks[i]) {
+            lockAllAndRun(locks, i + 1, action);
+        }
+    }
+
+    // Appelé avec les verrous des comptes de involved (seuls comptes utilisés)
+    private TransferOutcome applyInBatch(TransferRequest req, Map<String, Account> involved) {
+        if (req.getFromId().equals(req.getToId()) || req.getAmountMinor() <= 0) {
+            return TransferOutcome.INVALID_REQUEST;
+        }
+        Account from = involved.get(req.getFromId());
+        Account to   = involved.get(req.getToId());
+        if (from == null || to == null) {
+            return TransferOutcome.UNKNOWN_ACCOUNT;
+        }
+        Account.BalanceState fromBefore = from.balanceState();
+        Account.BalanceState toBefore = to.balanceState();
+        long amount = req.getAmountMinor();
+
+        long debit;
+        try {
+            // Règles vérifiées avant toute modification : rien à annuler
+            debit = amount + from.commitWithdraw(amount);
+        } catch (BusinessRuleViolation e) {
+            return TransferOutcome.INSUFFICIENT_FUNDS;
+        } catch (RuntimeException e) {
+            return failedInBatch(req, e);
+        }
+
+        // Retrait validé : comme doTransfer, toute exception est compensée
+        try {
+            from.deliverEvents();
+        } catch (RuntimeException e) {
+            from.compensateMinor(fromBefore, debit);
+            return failedInBatch(req, e);
+        }
+
+        to.commitDeposit(amount);
+        try {
+            to.deliverEvents();
+        } catch (RuntimeException e) {
+            from.compensateMinor(fromBefore, debit);
+            to.compensateMinor(toBefore, -amount);
+            return failedInBatch(req, e);
         }
+        return TransferOutcome.OK;
+    }
+
+    private TransferOutcome failedInBatch(TransferRequest req, RuntimeException e) {
+        logger.logError(String.format("Batch transfert FAILED : %s EUR %s -> %s : %s",
+                Money.format(req.getAmountMinor()), req.getFromId(), req.getToId(), e));
+        return TransferOutcome.FAILED;
     }
 
      public Account getAccount(String accountNumber) throws UnknownAccountException {
-        for (Account acc : accounts) {
-            if (acc.getAccountNumber().equals(accountNumber)) {
-                return acc;
-            }
+        Account acc = findAccountById(accountNumber);
+        if (acc == null) {
+            throw new UnknownAccountException("Compte introuvable: " + accountNumber);
         }
-        throw new UnknownAccountException("Compte introuvable: " + accountNumber);
+        return acc;
     }
 
    
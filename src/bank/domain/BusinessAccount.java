@@ -2,15 +2,20 @@ package bank.domain;
 
 import bank.errors.BusinessRuleViolation;
 
+import java.math.RoundingMode;
+
 public class BusinessAccount extends Account {
-    private final double creditLimit;
+    private final long creditLimit; // centimes
     private final double interestRate;
+    // Taux en milliardièmes pour le calcul en virgule fixe
+    private final long scaledRate;
      private String tier;
 
     public BusinessAccount(String accountNumber, double initial, double creditLimit, double interestRate, String tier) {
         super(accountNumber, initial);
-        this.creditLimit = creditLimit;
+        this.creditLimit = Money.ofMajor(creditLimit);
         this.interestRate = interestRate;
+        this.scaledRate = Money.rateOf(interestRate);
         this.tier = tier;
     }
 
@@ -28,6 +33,10 @@ public class BusinessAccount extends Account {
         return tier;
     }
     public double getCreditLimit() {
+        return Money.toMajor(creditLimit);
+    }
+
+    public long getCreditLimitMinor() {
         return creditLimit;
     }
 
@@ -40,12 +49,12 @@ public class BusinessAccount extends Account {
     // ============================================
     
     @Override
-    protected void checkSpecificRules(double amount) {
+    protected void checkSpecificRules(long amount, long balance) {
         // Calculer le solde après retrait
-        double potentialBalance = balance - amount;
+        long potentialBalance = balance - amount;
         
         // Calculer les frais potentiels selon la stratégie (Strategy Pattern)
-        double fee = 0.0;
+        long fee = 0;
         if (potentialBalance < 0) {
             fee = getFeePolicy().computeFee(amount);
         }
@@ -57,41 +66,31 @@ public class BusinessAccount extends Account {
         }
     }
     
-    @Override
-    protected void applyWithdraw(double amount, double fee) {
-        // Appliquer le retrait
-        balance -= amount;
-        recordTransaction(new Transaction(TransactionType.WITHDRAW, amount, balance));
-        
-        // Appliquer les frais si nécessaire
-        if (fee > 0) {
-            balance -= fee;
-            recordTransaction(new Transaction(TransactionType.FEE, fee, balance));
-        }
-    }
-
     // ============================================
     // Méthode spécifique : Intérêts (seulement si solde positif)
     // ============================================
     
+    // Intérêts arrondis au centime, arrondi bancaire (HALF_EVEN)
     public void applyInterest() {
-        if (balance > 0) {
-            double interest = balance * interestRate;
-            
-            if (interest < 0) {
-                throw new BusinessRuleViolation("Interest cannot be negative");
-            }
-            
-            balance += interest;
-            
-            Transaction tx = new Transaction(
-                TransactionType.INTEREST,
-                interest,
-                balance
-            );
-            
-            recordTransaction(tx);
+        applyInterest(RoundingMode.HALF_EVEN);
+    }
+    
+    // Retourne les intérêts crédités, en centimes (0 si solde négatif ou nul)
+    public synchronized long applyInterest(RoundingMode rounding) {
+        return creditInterest(balance -> periodInterest(balance, rounding));
+    }
+
+    @Override
+    protected long periodInterest(long balance, RoundingMode rounding) {
+        if (balance <= 0) {
+            return NO_INTEREST;
+        }
+        long interest = Money.applyRate(balance, scaledRate, rounding);
+        
+        if (interest < 0) {
+            throw new BusinessRuleViolation("Interest cannot be negative");
         }
+        return interest;
     }
     
     // ============================================
@@ -99,12 +98,6 @@ public class BusinessAccount extends Account {
     // ============================================
     
     public double getTotalInterestEarned() {
-        double totalInterest = 0.0;
-        for (Transaction tx : history()) {
-            if (tx.getType() == TransactionType.INTEREST) {
-                totalInterest += tx.getAmount();
-            }
-        }
-        return totalInterest;
+        return totalOf(TransactionType.INTEREST);
     }
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+package bank.domain;
+
+/**
+ * Mode de concurrence des retraits et dépôts d'un compte (voir Account).
+ */
+public enum ConcurrencyMode {
+    // Sous le verrou du compte
+    LOCKED,
+    // Validation par compareAndSet du solde versionné, réessayée en cas de conflit
+    OPTIMISTIC
+}
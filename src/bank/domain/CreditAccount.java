@@ -3,14 +3,18 @@ package bank.domain;
 import bank.errors.BusinessRuleViolation;
 
 public class CreditAccount extends Account {
-    private final double creditLimit;
+    private final long creditLimit; // centimes
 
     public CreditAccount(String accountNumber, double initial, double creditLimit) {
         super(accountNumber, initial);
-        this.creditLimit = creditLimit;
+        this.creditLimit = Money.ofMajor(creditLimit);
     }
 
     public double getCreditLimit() {
+        return Money.toMajor(creditLimit);
+    }
+
+    public long getCreditLimitMinor() {
         return creditLimit;
     }
 
@@ -19,12 +23,12 @@ public class CreditAccount extends Account {
     // ============================================
     
     @Override
-    protected void checkSpecificRules(double amount) {
+    protected void checkSpecificRules(long amount, long balance) {
         // Calculer le solde après retrait
-        double potentialBalance = balance - amount;
+        long potentialBalance = balance - amount;
         
         // Calculer les frais potentiels selon la stratégie (Strategy Pattern)
-        double fee = 0.0;
+        long fee = 0;
         if (potentialBalance < 0) {
             fee = getFeePolicy().computeFee(amount);
         }
@@ -35,17 +39,4 @@ public class CreditAccount extends Account {
                 "withdraw amount must be > 0 and <= balance + creditLimit");
         }
     }
-    
-    @Override
-    protected void applyWithdraw(double amount, double fee) {
-        // Appliquer le retrait
-        balance -= amount;
-        recordTransaction(new Transaction(TransactionType.WITHDRAW, amount, balance));
-        
-        // Appliquer les frais si nécessaire
-        if (fee > 0) {
-            balance -= fee;
-            recordTransaction(new Transaction(TransactionType.FEE, fee, balance));
-        }
-    }
 }
\ No newline at end of file
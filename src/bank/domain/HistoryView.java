@@ -0,0 +1,182 @@
+package bank.domain;
+
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+/**
+ * Vue en lecture seule sur une tranche de l'historique d'un compte.
+ *
+ * Créée en O(1) sans copie : la vue garde les tableaux de colonnes de
+ * TransactionHistory tels qu'ils étaient à sa création. L'historique n'étant
+ * modifié que par ajout en fin, les entrées vues ne changent jamais ; les
+ * ajouts ultérieurs ne sont simplement pas visibles. La lecture se fait sans
+ * verrou, y compris depuis un autre thread.
+ *
+ * get(i) crée un objet Transaction ; les accesseurs primitifs (amountMinorAt,
+ * typeAt...) et les flux amountsMinor() / balancesMinor() n'allouent rien par
+ * entrée.
+ */
+public final class HistoryView extends AbstractList<Transaction> implements RandomAccess {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final long[][] timestamps;
+    private final byte[][] types;
+    private final long[][] amounts;
+    private final long[][] balances;
+    private final int from;
+    private final int to;
+
+    HistoryView(long[][] timestamps, byte[][] types, long[][] amounts, long[][] balances,
+                int from, int to) {
+        this.timestamps = timestamps;
+        this.types = types;
+        this.amounts = amounts;
+        this.balances = balances;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Indice, dans l'historique complet, de la première entrée de la vue.
+     * La page suivante commence à getFromIndex() + size().
+     */
+    public int getFromIndex() {
+        return from;
+    }
+
+    @Override
+    public int size() {
+        return to - from;
+    }
+
+    @Override
+    public Transaction get(int index) {
+        int i = absolute(index);
+        return Transaction.ofMinor(TransactionHistory.fromEpochNanos(column(timestamps, i)),
+                TYPES[types[chunk(i)][offset(i)]], column(amounts, i), column(balances, i));
+    }
+
+    public TransactionType typeAt(int index) {
+        int i = absolute(index);
+        return TYPES[types[chunk(i)][offset(i)]];
+    }
+
+    public long epochNanosAt(int index) {
+        return column(timestamps, absolute(index));
+    }
+
+    public LocalDateTime timestampAt(int index) {
+        return TransactionHistory.fromEpochNanos(epochNanosAt(index));
+    }
+
+    public long amountMinorAt(int index) {
+        return column(amounts, absolute(index));
+    }
+
+    public long balanceAfterMinorAt(int index) {
+        return column(balances, absolute(index));
+    }
+
+    /**
+     * Montants en centimes, sans objet Transaction.
+     */
+    public LongStream amountsMinor() {
+        return IntStream.range(from, to).mapToLong(i -> column(amounts, i));
+    }
+
+    /**
+     * Soldes après transaction en centimes, sans objet Transaction.
+     */
+    public LongStream balancesMinor() {
+        return IntStream.range(from, to).mapToLong(i -> column(balances, i));
+    }
+
+    @Override
+    public HistoryView subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException(
+                "Tranche [" + fromIndex + ", " + toIndex + ") hors de [0, " + size() + ")");
+        }
+        return new HistoryView(timestamps, types, amounts, balances, from + fromIndex, from + toIndex);
+    }
+
+    @Override
+    public Spliterator<Transaction> spliterator() {
+        return new RangeSpliterator(from, to);
+    }
+
+    private int absolute(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Indice " + index + " hors de [0, " + size() + ")");
+        }
+        return from + index;
+    }
+
+    private static long column(long[][] column, int i) {
+        return column[chunk(i)][offset(i)];
+    }
+
+    private static int chunk(int i) {
+        return i >>> TransactionHistory.CHUNK_SHIFT;
+    }
+
+    private static int offset(int i) {
+        return i & TransactionHistory.CHUNK_MASK;
+    }
+
+    /**
+     * Découpe la vue par moitiés d'indices pour les flux parallèles.
+     */
+    private final class RangeSpliterator implements Spliterator<Transaction> {
+        private int next;
+        private final int end;
+
+        RangeSpliterator(int next, int end) {
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Transaction> action) {
+            if (next >= end) {
+                return false;
+            }
+            action.accept(get(next++ - from));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Transaction> action) {
+            for (; next < end; next++) {
+                action.accept(get(next - from));
+            }
+        }
+
+        @Override
+        public Spliterator<Transaction> trySplit() {
+            int mid = (next + end) >>> 1;
+            if (mid <= next) {
+                return null;
+            }
+            Spliterator<Transaction> prefix = new RangeSpliterator(next, mid);
+            next = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+}
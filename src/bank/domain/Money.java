@@ -0,0 +1,247 @@
+package bank.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Arithmétique monétaire en virgule fixe.
+ *
+ * Un montant est un long exprimé en unités mineures (centimes) : pas d'objet
+ * alloué, pas de BigDecimal (sauf produit montant x taux dépassant 64 bits),
+ * et des additions/soustractions exactes. Les taux
+ * (intérêts, frais en %) sont convertis en milliardièmes (long) ; le produit
+ * montant x taux est calculé en entier puis arrondi selon un RoundingMode
+ * explicite.
+ *
+ * Les méthodes en double (ofMajor, toMajor) ne servent qu'aux frontières de
+ * l'API publique (constructeurs, withdraw(double), getBalance()...).
+ */
+public final class Money {
+
+    // Unités mineures par unité (centimes par euro)
+    public static final long MINOR_PER_MAJOR = 100;
+    // Précision des taux : 1 = 10^-9
+    public static final long RATE_SCALE = 1_000_000_000L;
+
+    // En dessous de cet écart, un double est considéré comme un nombre entier
+    // de centimes (absorbe le bruit binaire de 0.1 + 0.2, 1.005 * 100...)
+    private static final double EPSILON = 1e-6;
+
+    private Money() {
+    }
+
+    /**
+     * Convertit un montant en euros (double) en centimes, arrondi HALF_EVEN.
+     */
+    public static long ofMajor(double amount) {
+        return ofMajor(amount, RoundingMode.HALF_EVEN);
+    }
+
+    public static long ofMajor(double amount, RoundingMode mode) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Montant invalide : " + amount);
+        }
+        double scaled = amount * MINOR_PER_MAJOR;
+        double nearest = Math.rint(scaled);
+        if (Math.abs(scaled - nearest) < EPSILON) {
+            return (long) nearest;
+        }
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor;
+        long down = (long) floor;
+        boolean positive = scaled > 0;
+        switch (mode) {
+            case FLOOR:
+                return down;
+            case CEILING:
+                return down + 1;
+            case DOWN:
+                return positive ? down : down + 1;
+            case UP:
+                return positive ? down + 1 : down;
+            case HALF_UP:
+            case HALF_DOWN:
+            case HALF_EVEN:
+                if (Math.abs(fraction - 0.5) < EPSILON) {
+                    return roundHalf(down, positive, mode);
+                }
+                return fraction > 0.5 ? down + 1 : down;
+            default:
+                throw new ArithmeticException("Arrondi nécessaire pour " + amount);
+        }
+    }
+
+    /**
+     * Convertit des centimes en euros (pour l'affichage et l'API double).
+     */
+    public static double toMajor(long minor) {
+        return minor / (double) MINOR_PER_MAJOR;
+    }
+
+    /**
+     * Convertit un taux (0.05 = 5 %) en milliardièmes.
+     */
+    public static long rateOf(double rate) {
+        return Math.round(rate * RATE_SCALE);
+    }
+
+    /**
+     * Applique un taux (en milliardièmes) à un montant en centimes.
+     * Le produit est calculé sur 64 bits tant qu'il y tient (montants jusqu'à
+     * ~9 M EUR pour un taux de 100 %) ; au-delà, en BigDecimal. Le résultat
+     * est toujours exact.
+     *
+     * @throws ArithmeticException si le résultat ne tient pas sur un long
+     */
+    public static long applyRate(long minor, long scaledRate, RoundingMode mode) {
+        long high = Math.multiplyHigh(minor, scaledRate);
+        long low = minor * scaledRate;
+        if (high == (low >> 63)) {
+            return divide(low, RATE_SCALE, mode);
+        }
+        return BigDecimal.valueOf(minor)
+                .multiply(BigDecimal.valueOf(scaledRate))
+                .divide(BigDecimal.valueOf(RATE_SCALE), 0, mode)
+                .longValueExact();
+    }
+
+    /**
+     * Division entière arrondie selon mode.
+     */
+    public static long divide(long numerator, long denominator, RoundingMode mode) {
+        long q = numerator / denominator;
+        long r = numerator % denominator;
+        if (r == 0) {
+            return q;
+        }
+        boolean positive = (numerator ^ denominator) >= 0;
+        long away = positive ? q + 1 : q - 1;
+        switch (mode) {
+            case DOWN:
+                return q;
+            case UP:
+                return away;
+            case FLOOR:
+                return positive ? q : away;
+            case CEILING:
+                return positive ? away : q;
+            case HALF_UP:
+            case HALF_DOWN:
+            case HALF_EVEN:
+                long twice = Math.abs(r) * 2;
+                long abs = Math.abs(denominator);
+                if (twice > abs) {
+                    return away;
+                }
+                if (twice < abs) {
+                    return q;
+                }
+                if (mode == RoundingMode.HALF_UP) {
+                    return away;
+                }
+                if (mode == RoundingMode.HALF_DOWN) {
+                    return q;
+                }
+                return (q & 1) == 0 ? q : away;
+            default:
+                throw new ArithmeticException("Division inexacte : " + numerator + " / " + denominator);
+        }
+    }
+
+    /**
+     * Analyse un montant décimal ("1234.5", "-0.05") sans passer par un double.
+     * Les décimales au-delà du centime sont arrondies HALF_EVEN ; les notations
+     * exponentielles (1.0E7) sont acceptées via Double.parseDouble.
+     *
+     * @throws NumberFormatException si la chaîne n'est pas un nombre
+     */
+    public static long parse(String text) {
+        int len = text.length();
+        if (len == 0) {
+            throw new NumberFormatException("Montant vide");
+        }
+        int i = 0;
+        boolean negative = false;
+        char first = text.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        for (; i < len && text.charAt(i) != '.'; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return ofMajor(Double.parseDouble(text));
+            }
+            units = Math.addExact(Math.multiplyExact(units, 10), c - '0');
+            digits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        boolean remainder = false;
+        int roundDigit = 0;
+        if (i < len) {
+            for (i++; i < len; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return ofMajor(Double.parseDouble(text));
+                }
+                if (fractionDigits < 2) {
+                    fraction = fraction * 10 + (c - '0');
+                } else if (fractionDigits == 2) {
+                    roundDigit = c - '0';
+                } else if (c != '0') {
+                    remainder = true;
+                }
+                fractionDigits++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Montant invalide : " + text);
+        }
+        for (int f = fractionDigits; f < 2; f++) {
+            fraction *= 10;
+        }
+        long minor = Math.addExact(Math.multiplyExact(units, MINOR_PER_MAJOR), fraction);
+        if (roundDigit > 5 || roundDigit == 5 && (remainder || (minor & 1) == 1)) {
+            minor++;
+        }
+        return negative ? -minor : minor;
+    }
+
+    /**
+     * Formate des centimes en "1234.50" / "-0.05", sans String.format.
+     */
+    public static String format(long minor) {
+        StringBuilder sb = new StringBuilder(24);
+        appendTo(sb, minor);
+        return sb.toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder sb, long minor) {
+        if (minor < 0) {
+            sb.append('-');
+        }
+        long abs = Math.abs(minor);
+        long cents = abs % MINOR_PER_MAJOR;
+        sb.append(abs / MINOR_PER_MAJOR).append('.');
+        if (cents < 10) {
+            sb.append('0');
+        }
+        return sb.append(cents);
+    }
+
+    private static long roundHalf(long down, boolean positive, RoundingMode mode) {
+        // Exactement à mi-chemin entre down et down + 1
+        switch (mode) {
+            case HALF_UP:
+                return positive ? down + 1 : down;
+            case HALF_DOWN:
+                return positive ? down : down + 1;
+            default:
+                return (down & 1) == 0 ? down : down + 1;
+        }
+    }
+}
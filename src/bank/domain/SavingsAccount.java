@@ -2,12 +2,17 @@ package bank.domain;
 
 import bank.errors.BusinessRuleViolation;
 
+import java.math.RoundingMode;
+
 public class SavingsAccount extends Account {
     private final double interestRate;
+    // Taux en milliardièmes pour le calcul en virgule fixe
+    private final long scaledRate;
 
     public SavingsAccount(String accountNumber, double initial, double interestRate) {
         super(accountNumber, initial);
         this.interestRate = interestRate;
+        this.scaledRate = Money.rateOf(interestRate);
     }
 
     // ============================================
@@ -15,7 +20,7 @@ public class SavingsAccount extends Account {
     // ============================================
     
     @Override
-    protected void checkSpecificRules(double amount) {
+    protected void checkSpecificRules(long amount, long balance) {
         // Règle spécifique : pas de découvert autorisé
         if (balance - amount < 0) {
             throw new BusinessRuleViolation(
@@ -23,39 +28,28 @@ public class SavingsAccount extends Account {
         }
     }
     
-    @Override
-    protected void applyWithdraw(double amount, double fee) {
-        // Appliquer le retrait
-        balance -= amount;
-        recordTransaction(new Transaction(TransactionType.WITHDRAW, amount, balance));
-        
-        // Appliquer les frais si nécessaire
-        if (fee > 0) {
-            balance -= fee;
-            recordTransaction(new Transaction(TransactionType.FEE, fee, balance));
-        }
-    }
-
     // ============================================
     // Méthode spécifique : Intérêts
     // ============================================
     
+    // Intérêts arrondis au centime, arrondi bancaire (HALF_EVEN)
     public void applyInterest() {
-        double interest = balance * interestRate;
+        applyInterest(RoundingMode.HALF_EVEN);
+    }
+    
+    // Retourne les intérêts crédités, en centimes
+    public synchronized long applyInterest(RoundingMode rounding) {
+        return creditInterest(balance -> periodInterest(balance, rounding));
+    }
+
+    @Override
+    protected long periodInterest(long balance, RoundingMode rounding) {
+        long interest = Money.applyRate(balance, scaledRate, rounding);
         
         if (interest < 0) {
             throw new BusinessRuleViolation("Interest cannot be negative");
         }
-        
-        balance += interest;
-        
-        Transaction tx = new Transaction(
-            TransactionType.INTEREST,
-            interest,
-            balance
-        );
-        
-        recordTransaction(tx);
+        return interest;
     }
 
     // ============================================
@@ -63,13 +57,7 @@ public class SavingsAccount extends Account {
     // ============================================
     
     public double getTotalInterestEarned() {
-        double totalInterest = 0.0;
-        for (Transaction tx : history()) {
-            if (tx.getType() == TransactionType.INTEREST) {
-                totalInterest += tx.getAmount();
-            }
-        }
-        return totalInterest;
+        return totalOf(TransactionType.INTEREST);
     }
     
     public double getInterestRate() {
@@ -1,26 +1,49 @@
 package bank.domain;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 //declarer une class immuable final avec des att final et private
 
 public final class Transaction {
 
+    // Horodatages en UTC : pas de saut à l'heure d'été / d'hiver (voir TransactionHistory)
+    private static final Clock UTC = Clock.systemUTC();
    
     private final LocalDateTime timestamp;
     private final TransactionType type;
-    private final double amount;
-    private final double balanceAfter;
+    // Montants en centimes (voir Money)
+    private final long amount;
+    private final long balanceAfter;
 
  
     public Transaction(TransactionType type, double amount, double balanceAfter) {
-       
+        this(LocalDateTime.now(UTC), type, amount, balanceAfter);
+    }
+
+    // Pour la restauration depuis un snapshot : conserve l'horodatage d'origine
+    public Transaction(LocalDateTime timestamp, TransactionType type, double amount, double balanceAfter) {
+        this(timestamp, type, Money.ofMajor(amount), Money.ofMajor(balanceAfter));
+    }
 
-        this.timestamp = LocalDateTime.now(); 
+    private Transaction(LocalDateTime timestamp, TransactionType type, long amount, long balanceAfter) {
+        this.timestamp = timestamp;
         this.type = type;
         this.amount = amount;
         this.balanceAfter = balanceAfter;
     }
 
+    /**
+     * Transaction horodatée maintenant (UTC), montants en centimes.
+     */
+    public static Transaction ofMinor(TransactionType type, long amount, long balanceAfter) {
+        return new Transaction(LocalDateTime.now(UTC), type, amount, balanceAfter);
+    }
+
+    public static Transaction ofMinor(LocalDateTime timestamp, TransactionType type,
+                                      long amount, long balanceAfter) {
+        return new Transaction(timestamp, type, amount, balanceAfter);
+    }
+
     
     public LocalDateTime getTimestamp() {
         return timestamp;
@@ -31,22 +54,29 @@ public final class Transaction {
     }
 
     public double getAmount() {
-        return amount;
+        return Money.toMajor(amount);
     }
 
     public double getBalanceAfter() {
+        return Money.toMajor(balanceAfter);
+    }
+
+    public long getAmountMinor() {
+        return amount;
+    }
+
+    public long getBalanceAfterMinor() {
         return balanceAfter;
     }
 
     @Override
     public String toString() {
         return String.format(
-            "[%s] %-12s %.2f → solde %.2f",
+            "[%s] %-12s %s → solde %s",
             timestamp,
             type,
-            amount,
-            balanceAfter
+            Money.format(amount),
+            Money.format(balanceAfter)
         );
     }
 }
-
@@ -0,0 +1,275 @@
+package bank.domain;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Historique d'un compte stocké en colonnes de types primitifs.
+ *
+ * Chaque transaction occupe 25 octets répartis dans des tableaux parallèles
+ * (horodatage en nanosecondes epoch, type, montant, solde après), alloués
+ * par blocs de CHUNK_SIZE entrées (le premier bloc grandit progressivement). Les objets Transaction ne sont créés
+ * qu'à la lecture.
+ *
+ * Des agrégats par type (nombre, somme des montants, positions des entrées)
+ * sont tenus à jour à chaque ajout : totaux en O(1), entrées d'un type en O(k).
+ * L'index des positions coûte 4 octets de plus par transaction.
+ *
+ * Les horodatages sont en UTC (voir Transaction) : l'heure locale recule
+ * d'une heure au passage à l'heure d'hiver, pas l'UTC. Les entrées sont
+ * triées par horodatage dès l'ajout : pour une nouvelle transaction, un
+ * horodatage antérieur au précédent (égalité à la résolution de l'horloge,
+ * correction NTP) est ramené au précédent, l'ordre d'ajout faisant foi. Un
+ * historique restauré (restore) n'est jamais réécrit : il est refusé s'il
+ * n'est pas chronologique. Les recherches par date se font donc par
+ * dichotomie.
+ *
+ * Non thread-safe : Account synchronise les accès. Une entrée écrite n'est
+ * plus jamais modifiée, et un bloc agrandi est remplacé par une copie (jamais
+ * modifié en place) : les vues (HistoryView) peuvent donc lire sans verrou
+ * les tableaux capturés à leur création.
+ */
+final class TransactionHistory {
+
+    static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int MIN_FIRST_CHUNK = 8;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final Clock CLOCK = Clock.systemUTC();
+
+    private long[][] timestamps = new long[0][];
+    private byte[][] types = new byte[0][];
+    // Montants en centimes (voir Money)
+    private long[][] amounts = new long[0][];
+    private long[][] balances = new long[0][];
+    private int allocatedChunks;
+    private int size;
+    private long lastNanos = Long.MIN_VALUE;
+
+    // Agrégats par type, indexés par ordinal
+    private final int[] countByType = new int[TYPES.length];
+    private final long[] sumByType = new long[TYPES.length];
+    private final int[][] positionsByType = new int[TYPES.length][];
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Ajoute une nouvelle transaction directement dans les colonnes (aucun
+     * objet créé). L'horodatage est ramené au précédent s'il lui est antérieur.
+     *
+     * @param nanos Horodatage en nanosecondes epoch UTC (voir nowEpochNanos)
+     * @return l'horodatage enregistré
+     */
+    long append(long nanos, TransactionType type, long amount, long balanceAfter) {
+        long stamped = Math.max(lastNanos, nanos);
+        store(stamped, type, amount, balanceAfter);
+        return stamped;
+    }
+
+    /**
+     * Ajoute des transactions sauvegardées, horodatages inchangés.
+     *
+     * @throws IllegalArgumentException si elles ne sont pas chronologiques
+     *         (entre elles ou par rapport à la dernière entrée) ; rien n'est ajouté
+     */
+    void restore(Collection<Transaction> transactions) {
+        long previous = lastNanos;
+        for (Transaction tx : transactions) {
+            long nanos = toEpochNanos(tx.getTimestamp());
+            if (nanos < previous) {
+                throw new IllegalArgumentException("Historique non chronologique : "
+                        + tx.getTimestamp() + " après " + fromEpochNanos(previous));
+            }
+            previous = nanos;
+        }
+        ensureCapacity(size + transactions.size());
+        for (Transaction tx : transactions) {
+            store(toEpochNanos(tx.getTimestamp()), tx.getType(), tx.getAmountMinor(),
+                    tx.getBalanceAfterMinor());
+        }
+    }
+
+    private void store(long nanos, TransactionType type, long amount, long balanceAfter) {
+        ensureCapacity(size + 1);
+        int chunk = size >>> CHUNK_SHIFT;
+        int offset = size & CHUNK_MASK;
+        lastNanos = nanos;
+        timestamps[chunk][offset] = nanos;
+        types[chunk][offset] = (byte) type.ordinal();
+        amounts[chunk][offset] = amount;
+        balances[chunk][offset] = balanceAfter;
+        index(type.ordinal(), amount);
+        size++;
+    }
+
+    // Appelé par add avant size++ : size est l'indice de la nouvelle entrée
+    private void index(int type, long amount) {
+        int count = countByType[type];
+        int[] positions = positionsByType[type];
+        if (positions == null) {
+            positions = positionsByType[type] = new int[MIN_FIRST_CHUNK];
+        } else if (count == positions.length) {
+            positions = positionsByType[type] = Arrays.copyOf(positions, count * 2);
+        }
+        positions[count] = size;
+        countByType[type] = count + 1;
+        sumByType[type] += amount;
+    }
+
+    int countOf(TransactionType type) {
+        return countByType[type.ordinal()];
+    }
+
+    long sumOf(TransactionType type) {
+        return sumByType[type.ordinal()];
+    }
+
+    // Indice dans l'historique de la n-ième entrée du type donné
+    int positionOf(TransactionType type, int n) {
+        return positionsByType[type.ordinal()][n];
+    }
+
+    /**
+     * Alloue d'avance la place pour capacity entrées. Le premier bloc grandit
+     * progressivement (MIN_FIRST_CHUNK, puis x2) jusqu'à CHUNK_SIZE pour que
+     * les comptes peu actifs restent petits ; les suivants sont pleins.
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity <= capacity()) {
+            return;
+        }
+        if (allocatedChunks == 0 || timestamps[0].length < CHUNK_SIZE) {
+            int first = Math.min(CHUNK_SIZE,
+                    Math.max(MIN_FIRST_CHUNK, Integer.highestOneBit(capacity - 1) << 1));
+            growFirstChunk(first);
+            if (capacity <= first) {
+                return;
+            }
+        }
+        int chunksNeeded = (capacity + CHUNK_MASK) >>> CHUNK_SHIFT;
+        if (chunksNeeded > timestamps.length) {
+            int newLength = Math.max(chunksNeeded, timestamps.length * 2);
+            timestamps = Arrays.copyOf(timestamps, newLength);
+            types = Arrays.copyOf(types, newLength);
+            amounts = Arrays.copyOf(amounts, newLength);
+            balances = Arrays.copyOf(balances, newLength);
+        }
+        for (int i = allocatedChunks; i < chunksNeeded; i++) {
+            timestamps[i] = new long[CHUNK_SIZE];
+            types[i] = new byte[CHUNK_SIZE];
+            amounts[i] = new long[CHUNK_SIZE];
+            balances[i] = new long[CHUNK_SIZE];
+        }
+        allocatedChunks = chunksNeeded;
+    }
+
+    private int capacity() {
+        if (allocatedChunks == 0) {
+            return 0;
+        }
+        return allocatedChunks == 1 ? timestamps[0].length : allocatedChunks * CHUNK_SIZE;
+    }
+
+    private void growFirstChunk(int length) {
+        if (allocatedChunks == 0) {
+            timestamps = new long[1][];
+            types = new byte[1][];
+            amounts = new long[1][];
+            balances = new long[1][];
+            timestamps[0] = new long[length];
+            types[0] = new byte[length];
+            amounts[0] = new long[length];
+            balances[0] = new long[length];
+            allocatedChunks = 1;
+        } else {
+            // Nouveaux tableaux externes : les vues existantes gardent les anciens
+            timestamps = new long[][] {Arrays.copyOf(timestamps[0], length)};
+            types = new byte[][] {Arrays.copyOf(types[0], length)};
+            amounts = new long[][] {Arrays.copyOf(amounts[0], length)};
+            balances = new long[][] {Arrays.copyOf(balances[0], length)};
+        }
+    }
+
+    Transaction get(int index) {
+        int chunk = index >>> CHUNK_SHIFT;
+        int offset = index & CHUNK_MASK;
+        return Transaction.ofMinor(fromEpochNanos(timestamps[chunk][offset]),
+                TYPES[types[chunk][offset]],
+                amounts[chunk][offset],
+                balances[chunk][offset]);
+    }
+
+    TransactionType typeAt(int index) {
+        return TYPES[types[index >>> CHUNK_SHIFT][index & CHUNK_MASK]];
+    }
+
+    long epochNanosAt(int index) {
+        return timestamps[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    long balanceAt(int index) {
+        return balances[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    // Effet de l'entrée sur le solde (négatif pour les débits)
+    long signedAmountAt(int index) {
+        long amount = amounts[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        switch (typeAt(index)) {
+            case WITHDRAW:
+            case TRANSFER_OUT:
+            case FEE:
+                return -amount;
+            default:
+                return amount;
+        }
+    }
+
+    /**
+     * Premier indice dont l'horodatage est >= nanos (ou > nanos si strict),
+     * size() s'il n'y en a pas. O(log n).
+     */
+    int indexOf(long nanos, boolean strict) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            long t = epochNanosAt(mid);
+            if (t < nanos || strict && t == nanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Vue sur les entrées [from, to), sans copie. O(1).
+     */
+    HistoryView view(int from, int to) {
+        return new HistoryView(timestamps, types, amounts, balances, from, to);
+    }
+
+    // Maintenant, en nanosecondes epoch UTC (même horloge que Transaction)
+    static long nowEpochNanos() {
+        Instant now = CLOCK.instant();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    static long toEpochNanos(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + timestamp.getNano();
+    }
+
+    static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
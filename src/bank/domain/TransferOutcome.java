@@ -0,0 +1,14 @@
+package bank.domain;
+
+/**
+ * Résultat d'un transfert dans un lot (voir {@link Bank#transferBatch}).
+ */
+public enum TransferOutcome {
+    OK,
+    INSUFFICIENT_FUNDS,
+    UNKNOWN_ACCOUNT,
+    // même compte source/destination ou montant <= 0
+    INVALID_REQUEST,
+    // un observateur a échoué : le transfert a été annulé
+    FAILED
+}
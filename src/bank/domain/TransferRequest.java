@@ -0,0 +1,49 @@
+package bank.domain;
+
+/**
+ * Ordre de transfert immuable, utilisé par {@link Bank#transferBatch}.
+ */
+public final class TransferRequest {
+
+    private final String fromId;
+    private final String toId;
+    private final long amount; // centimes
+
+    public TransferRequest(String fromId, String toId, double amount) {
+        this(fromId, toId, Money.ofMajor(amount));
+    }
+
+    private TransferRequest(String fromId, String toId, long amount) {
+        this.fromId = fromId;
+        this.toId = toId;
+        this.amount = amount;
+    }
+
+    /**
+     * Ordre de transfert avec un montant en centimes.
+     */
+    public static TransferRequest ofMinor(String fromId, String toId, long amount) {
+        return new TransferRequest(fromId, toId, amount);
+    }
+
+    public String getFromId() {
+        return fromId;
+    }
+
+    public String getToId() {
+        return toId;
+    }
+
+    public double getAmount() {
+        return Money.toMajor(amount);
+    }
+
+    public long getAmountMinor() {
+        return amount;
+    }
+
+    @Override
+    public String toString() {
+        return fromId + " -> " + toId + " : " + Money.format(amount);
+    }
+}
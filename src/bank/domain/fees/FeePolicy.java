@@ -1,6 +1,9 @@
-
 package bank.domain.fees;
 
+/**
+ * Calcul des frais d'un retrait.
+ * Montants en centimes (voir {@link bank.domain.Money}).
+ */
 public interface FeePolicy {
-    double computeFee(double amount);
-}
\ No newline at end of file
+    long computeFee(long amount);
+}
@@ -1,15 +1,17 @@
 // bank/fees/FixedFeePolicy.java
 package bank.domain.fees;
 
+import bank.domain.Money;
+
 public class FixedFeePolicy implements FeePolicy {
-    private final double fee;
+    private final long fee; // centimes
     
     public FixedFeePolicy(double fee) {
-        this.fee = fee;
+        this.fee = Money.ofMajor(fee);
     }
     
     @Override
-    public double computeFee(double amount) {
+    public long computeFee(long amount) {
         return fee;
     }
-}
\ No newline at end of file
+}
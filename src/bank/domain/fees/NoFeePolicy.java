@@ -3,7 +3,7 @@ package bank.domain.fees;
 
 public class NoFeePolicy implements FeePolicy {
     @Override
-    public double computeFee(double amount) {
-        return 0.0;
+    public long computeFee(long amount) {
+        return 0;
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,26 @@
 // bank/fees/PercentageFeePolicy.java
 package bank.domain.fees;
 
+import bank.domain.Money;
+
+import java.math.RoundingMode;
+
 public class PercentageFeePolicy implements FeePolicy {
-    private final double rate;
+    private final long rate; // milliardièmes
+    private final RoundingMode rounding;
     
+    // Frais arrondis au centime le plus proche (0.5 centime -> au-dessus)
     public PercentageFeePolicy(double rate) {
-        this.rate = rate;
+        this(rate, RoundingMode.HALF_UP);
+    }
+    
+    public PercentageFeePolicy(double rate, RoundingMode rounding) {
+        this.rate = Money.rateOf(rate);
+        this.rounding = rounding;
     }
     
     @Override
-    public double computeFee(double amount) {
-        return amount * rate;
+    public long computeFee(long amount) {
+        return Money.applyRate(amount, rate, rounding);
     }
-}
\ No newline at end of file
+}
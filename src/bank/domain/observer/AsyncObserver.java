@@ -0,0 +1,212 @@
+package bank.domain.observer;
+
+import bank.domain.Account;
+import bank.domain.Transaction;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Décorateur qui notifie un observateur sur un Executor plutôt que dans le
+ * thread du retrait / dépôt.
+ *
+ * Chaque AsyncObserver a sa propre file : les événements sont livrés un par
+ * un, dans l'ordre d'arrivée (donc dans l'ordre des transactions de chaque
+ * compte), par au plus une tâche à la fois. Plusieurs AsyncObserver peuvent
+ * partager le même Executor ; un observateur lent ne retarde que sa file.
+ *
+ * Usage : account.addObserver(new AsyncObserver(new AuditService(), executor));
+ *
+ * getLag() donne le nombre d'événements en attente, getLastDelayNanos() le
+ * délai entre la transaction et sa livraison pour le dernier événement livré.
+ *
+ * close() ferme d'abord l'entrée (bit CLOSED posé par CAS sur le compteur
+ * des dépôts en cours), attend les dépôts commencés avant, puis livre la
+ * file : un événement est soit accepté avant la fermeture et livré par
+ * close(), soit livré directement par l'appelant.
+ *
+ * Après close(), la livraison directe attend d'abord que la file soit vide,
+ * puis se fait sous un verrou : l'observateur continue de recevoir les
+ * événements un par un, après ceux acceptés avant la fermeture. Seule
+ * exception : un événement produit par l'observateur lui-même pendant une
+ * livraison de la file est livré aussitôt (sinon il s'attendrait lui-même).
+ */
+public class AsyncObserver implements AccountObserver, AutoCloseable {
+
+    // Événements livrés par tâche avant de rendre la main aux autres files
+    private static final int MAX_EVENTS_PER_TASK = 256;
+    private static final long IDLE_PARK_NANOS = 100_000L;
+    private static final int CLOSED = Integer.MIN_VALUE;
+
+    private final AccountObserver delegate;
+    private final Executor executor;
+    private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+    // true tant qu'une tâche de livraison est soumise ou en cours
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    // Dépôts dans la file en cours, plus le bit CLOSED
+    private final AtomicInteger entering = new AtomicInteger();
+    private volatile long lastDelayNanos;
+    // Thread qui vide la file en ce moment, ou null
+    private volatile Thread drainer;
+    // Livraisons directes après close(), une à la fois
+    private final Object directLock = new Object();
+
+    /**
+     * @param delegate Observateur notifié de façon asynchrone
+     * @param executor Executor des livraisons (non arrêté par close())
+     */
+    public AsyncObserver(AccountObserver delegate, Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public void onTransaction(Account acc, Transaction tx) {
+        int n;
+        do {
+            n = entering.get();
+            if ((n & CLOSED) != 0) {
+                deliverAfterClose(new Event(acc, tx));
+                return;
+            }
+        } while (!entering.compareAndSet(n, n + 1));
+        try {
+            queue.add(new Event(acc, tx));
+            submitted.incrementAndGet();
+        } finally {
+            entering.decrementAndGet();
+        }
+        schedule();
+    }
+
+    public AccountObserver getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Nombre d'événements acceptés mais pas encore livrés.
+     */
+    public long getLag() {
+        return submitted.get() - delivered.get();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    /**
+     * Nombre d'exceptions levées par l'observateur (l'événement est compté
+     * comme livré et la file continue).
+     */
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public long getLastDelayNanos() {
+        return lastDelayNanos;
+    }
+
+    /**
+     * Attend que tous les événements acceptés jusqu'ici soient livrés.
+     */
+    public void flush() {
+        long target = submitted.get();
+        while (delivered.get() < target) {
+            schedule(); // au cas où l'executor aurait rejeté la dernière tâche
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Refuse les nouveaux événements (ils sont ensuite livrés directement
+     * dans le thread appelant), puis livre tous ceux déjà acceptés.
+     * L'Executor n'est pas arrêté.
+     */
+    @Override
+    public void close() {
+        int n;
+        do {
+            n = entering.get();
+        } while ((n & CLOSED) == 0 && !entering.compareAndSet(n, n | CLOSED));
+        drainAccepted();
+    }
+
+    // Attend les dépôts commencés avant la fermeture, puis leur livraison
+    private void drainAccepted() {
+        while ((entering.get() & ~CLOSED) != 0) {
+            Thread.onSpinWait();
+        }
+        flush();
+    }
+
+    // Après close() : dans le thread appelant, après la file, un à la fois
+    private void deliverAfterClose(Event event) {
+        if (Thread.currentThread() != drainer) {
+            drainAccepted();
+        }
+        synchronized (directLock) {
+            deliver(event);
+        }
+    }
+
+    private void schedule() {
+        if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Executor arrêté ou saturé : livrer dans le thread appelant
+                drain();
+            }
+        }
+    }
+
+    private void drain() {
+        Thread previous = drainer; // drain imbriqué (executor qui refuse la tâche)
+        drainer = Thread.currentThread();
+        try {
+            for (int i = 0; i < MAX_EVENTS_PER_TASK; i++) {
+                Event event = queue.poll();
+                if (event == null) {
+                    break;
+                }
+                deliver(event);
+                delivered.incrementAndGet();
+            }
+        } finally {
+            drainer = previous;
+            scheduled.set(false);
+        }
+        // Un événement a pu arriver entre le dernier poll et la remise à false
+        schedule();
+    }
+
+    private void deliver(Event event) {
+        try {
+            delegate.onTransaction(event.account, event.tx);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+        }
+        lastDelayNanos = System.nanoTime() - event.createdNanos;
+    }
+
+    private static final class Event {
+        final Account account;
+        final Transaction tx;
+        final long createdNanos = System.nanoTime();
+
+        Event(Account account, Transaction tx) {
+            this.account = account;
+            this.tx = tx;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package bank.domain.observer;
+
+/**
+ * Comportement de l'AuditService en mode batch quand le tampon circulaire est plein.
+ */
+public enum AuditOverflowPolicy {
+    // L'appelant attend qu'une place se libère
+    BLOCK,
+    // L'événement est abandonné et compté (getDroppedCount)
+    DROP,
+    // L'événement est écrit directement dans le fichier de débordement <audit>.spill
+    SPILL
+}
@@ -2,38 +2,374 @@ package bank.domain.observer;
 
 import bank.domain.Account;
 import bank.domain.Transaction;
+import bank.infrastructure.metrics.MetricsRegistry;
+import bank.infrastructure.metrics.OperationMetrics;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
-public class AuditService implements AccountObserver {
+/**
+ * Observateur d'audit.
+ *
+ * Par défaut (constructeur sans argument), chaque transaction est écrite
+ * immédiatement dans audit.log. En mode batch, onTransaction dépose
+ * l'événement dans un tampon circulaire borné ; un thread dédié le formate
+ * et l'écrit par lots dans un FileChannel gardé ouvert. Quand le tampon est
+ * plein, la politique {@link AuditOverflowPolicy} s'applique. Après close, les
+ * événements sont écrits directement (sans tampon) dans le fichier.
+ */
+public class AuditService implements AccountObserver, AutoCloseable {
     private static final String AUDIT_FILE = "audit.log";
     private static final DateTimeFormatter FORMATTER = 
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int BATCH_BUFFER_SIZE = 64 * 1024;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+    private static final OperationMetrics METRICS =
+        MetricsRegistry.global().operation("audit.onTransaction");
+
+    // null en mode synchrone
+    private final BatchWriter batch;
+
+    /**
+     * Mode synchrone : une écriture dans audit.log par transaction.
+     */
+    public AuditService() {
+        this.batch = null;
+    }
+
+    /**
+     * Mode batch.
+     *
+     * @param file Fichier d'audit
+     * @param capacity Taille du tampon circulaire (arrondie à la puissance de 2 supérieure)
+     * @param overflowPolicy Comportement quand le tampon est plein
+     */
+    public AuditService(Path file, int capacity, AuditOverflowPolicy overflowPolicy) {
+        this.batch = new BatchWriter(file, capacity, overflowPolicy);
+    }
     
     @Override
     public void onTransaction(Account acc, Transaction tx) {
-        String timestamp = LocalDateTime.now().format(FORMATTER);
+        long start = System.nanoTime();
+        if (batch != null) {
+            batch.submit(new AuditEvent(LocalDateTime.now(), acc.getAccountNumber(), tx));
+            METRICS.recordSuccess(start);
+            return;
+        }
+
+        String auditLine = format(LocalDateTime.now(), acc.getAccountNumber(), tx);
         
+        try (BufferedWriter writer = new BufferedWriter(
+                new FileWriter(AUDIT_FILE, true))) {
+            writer.write(auditLine);
+        } catch (IOException e) {
+            METRICS.recordFailure(start, e);
+            System.err.println("Erreur d'écriture dans audit.log: " + e.getMessage());
+            return;
+        }
+        METRICS.recordSuccess(start);
+    }
+
+    /**
+     * Attend que tous les événements acceptés jusqu'ici soient écrits.
+     * Sans effet en mode synchrone.
+     */
+    public void flush() {
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    /**
+     * Écrit les événements en attente puis arrête le thread d'écriture.
+     */
+    @Override
+    public void close() {
+        if (batch != null) {
+            batch.close();
+        }
+    }
+
+    public long getDroppedCount() {
+        return batch == null ? 0 : batch.dropped.get();
+    }
+
+    public long getSpilledCount() {
+        return batch == null ? 0 : batch.spilled.get();
+    }
+
+    private static String format(LocalDateTime at, String accountNumber, Transaction tx) {
         // Use Locale.US to ensure consistent decimal format (period instead of comma)
-        String auditLine = String.format(Locale.US,
+        return String.format(Locale.US,
             "[%s] AUDIT - Account %s | Type: %s | Amount: %.2f | New Balance: %.2f%n",
-            timestamp, 
-            acc.getAccountNumber(),
+            at.format(FORMATTER), 
+            accountNumber,
             tx.getType(), 
             tx.getAmount(), 
             tx.getBalanceAfter()
         );
-        
-        try (BufferedWriter writer = new BufferedWriter(
-                new FileWriter(AUDIT_FILE, true))) {
-            writer.write(auditLine);
-        } catch (IOException e) {
-            System.err.println("Erreur d'écriture dans audit.log: " + e.getMessage());
+    }
+
+    private static final class AuditEvent {
+        final LocalDateTime at;
+        final String accountNumber;
+        final Transaction tx;
+
+        AuditEvent(LocalDateTime at, String accountNumber, Transaction tx) {
+            this.at = at;
+            this.accountNumber = accountNumber;
+            this.tx = tx;
+        }
+    }
+
+    /**
+     * Tampon circulaire multi-producteurs / un consommateur et thread d'écriture.
+     *
+     * La fermeture pose le bit CLOSED sur tail par compareAndSet : aucun
+     * événement ne peut plus être réservé ensuite, et le thread d'écriture
+     * s'arrête après avoir écrit tous ceux réservés avant. Un événement
+     * soumis après close est écrit directement dans le fichier.
+     */
+    private static final class BatchWriter {
+        // Bit de tail posé par close
+        private static final long CLOSED = Long.MIN_VALUE;
+        // Attente maximale d'une place (BLOCK) avant de passer au fichier .spill
+        private static final long BLOCK_TIMEOUT_NANOS = 5_000_000_000L;
+
+        private final Path file;
+        private final Path spillFile;
+        private final AuditOverflowPolicy overflowPolicy;
+        private final AtomicReferenceArray<AuditEvent> ring;
+        private final int capacity;
+        private final int mask;
+
+        // Prochaine case à réserver (producteurs, + bit CLOSED) / à lire (thread d'écriture)
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+        private volatile long written;
+
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong spilled = new AtomicLong();
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_BUFFER_SIZE);
+        private final Thread writerThread;
+        // Ouvert au premier débordement, fermé par close (sous le verrou du BatchWriter)
+        private BufferedWriter spillWriter;
+
+        BatchWriter(Path file, int capacity, AuditOverflowPolicy overflowPolicy) {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be > 0");
+            }
+            int size = 1;
+            while (size < capacity) {
+                size <<= 1;
+            }
+            this.capacity = size;
+            this.mask = size - 1;
+            this.ring = new AtomicReferenceArray<>(size);
+            this.overflowPolicy = overflowPolicy;
+            this.file = file;
+            this.spillFile = file.resolveSibling(file.getFileName() + ".spill");
+            try {
+                this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Impossible d'ouvrir " + file, e);
+            }
+            writerThread = new Thread(this::runWriter, "bank-audit-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+
+        void submit(AuditEvent event) {
+            long waitStart = 0;
+            while (!tryOffer(event)) {
+                if (isClosed()) {
+                    writeAfterClose(event);
+                    return;
+                }
+                switch (overflowPolicy) {
+                    case DROP:
+                        dropped.incrementAndGet();
+                        return;
+                    case SPILL:
+                        spill(event);
+                        return;
+                    default:
+                        // BLOCK borné : thread d'écriture arrêté (erreur) ou trop lent
+                        long now = System.nanoTime();
+                        if (waitStart == 0) {
+                            waitStart = now;
+                        } else if (now - waitStart > BLOCK_TIMEOUT_NANOS || !writerThread.isAlive()) {
+                            spill(event);
+                            return;
+                        }
+                        LockSupport.unpark(writerThread);
+                        LockSupport.parkNanos(10_000);
+                }
+            }
+        }
+
+        private boolean tryOffer(AuditEvent event) {
+            while (true) {
+                long t = tail.get();
+                if ((t & CLOSED) != 0 || t - head >= capacity) {
+                    return false;
+                }
+                if (tail.compareAndSet(t, t + 1)) {
+                    ring.set((int) (t & mask), event);
+                    return true;
+                }
+            }
+        }
+
+        private boolean isClosed() {
+            return (tail.get() & CLOSED) != 0;
+        }
+
+        // Nombre d'événements réservés (sans le bit CLOSED)
+        private long reserved() {
+            return tail.get() & ~CLOSED;
+        }
+
+        private synchronized void spill(AuditEvent event) {
+            if (isClosed()) {
+                writeAfterClose(event);
+                return;
+            }
+            try {
+                if (spillWriter == null) {
+                    spillWriter = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                spillWriter.write(format(event.at, event.accountNumber, event.tx));
+                spillWriter.flush();
+                spilled.incrementAndGet();
+            } catch (IOException e) {
+                dropped.incrementAndGet();
+                System.err.println("Erreur d'écriture dans " + spillFile + ": " + e.getMessage());
+            }
+        }
+
+        // Après close : écriture synchrone (le thread d'écriture est arrêté)
+        private synchronized void writeAfterClose(AuditEvent event) {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(format(event.at, event.accountNumber, event.tx));
+            } catch (IOException e) {
+                dropped.incrementAndGet();
+                System.err.println("Erreur d'écriture dans " + file + ": " + e.getMessage());
+            }
+        }
+
+        void flush() {
+            long target = reserved();
+            while (written < target && writerThread.isAlive()) {
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(100_000);
+            }
+        }
+
+        void close() {
+            long t;
+            do {
+                t = tail.get();
+                if ((t & CLOSED) != 0) {
+                    return;
+                }
+            } while (!tail.compareAndSet(t, t | CLOSED));
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // Un spill tardif voit CLOSED et passe par writeAfterClose
+            synchronized (this) {
+                if (spillWriter != null) {
+                    try {
+                        spillWriter.close();
+                    } catch (IOException e) {
+                        System.err.println("Erreur de fermeture de " + spillFile + ": " + e.getMessage());
+                    }
+                    spillWriter = null;
+                }
+            }
+        }
+
+        private void runWriter() {
+            try {
+                while (!isClosed() || head < reserved()) {
+                    if (!drainBatch()) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Erreur d'écriture dans le fichier d'audit: " + e.getMessage());
+            } finally {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    System.err.println("Erreur de fermeture du fichier d'audit: " + e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * Écrit tous les événements disponibles en un lot.
+         *
+         * @return false si aucun événement n'était disponible
+         */
+        private boolean drainBatch() throws IOException {
+            long h = head;
+            long available = reserved();
+            if (h == available) {
+                return false;
+            }
+            while (h < available) {
+                int idx = (int) (h & mask);
+                AuditEvent event = ring.get(idx);
+                if (event == null) {
+                    // Case réservée mais pas encore remplie par le producteur
+                    Thread.onSpinWait();
+                    continue;
+                }
+                ring.set(idx, null);
+                byte[] bytes = format(event.at, event.accountNumber, event.tx)
+                        .getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > buffer.remaining()) {
+                    writeBuffer();
+                }
+                buffer.put(bytes);
+                h++;
+                head = h;
+            }
+            writeBuffer();
+            written = h;
+            return true;
+        }
+
+        private void writeBuffer() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package bank.domain.observer;
+
+import bank.domain.Account;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Bus d'événements commun à tous les comptes d'une banque.
+ *
+ * Un observateur s'abonne une seule fois (au lieu d'un addObserver par
+ * compte), éventuellement filtré par type de transaction, type de compte
+ * et/ou prédicat sur le numéro de compte.
+ *
+ * Les filtres de type sont précalculés dans une table de routage : pour chaque
+ * classe de compte, un tableau d'abonnés par TransactionType. Un événement sans
+ * abonné intéressé ne coûte qu'une lecture de tableau. La table est recalculée
+ * (paresseusement) après chaque abonnement / désabonnement ; publish ne prend
+ * aucun verrou.
+ *
+ * Comme pour addObserver, les abonnés sont appelés dans le thread de la
+ * transaction : envelopper un abonné lent dans un {@link AsyncObserver}.
+ */
+public class EventBus {
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final Subscriber[] NONE = new Subscriber[0];
+
+    // Copy-on-write : remplacés (jamais modifiés) sous le verrou de this
+    private volatile Subscriber[] subscribers = NONE;
+    private volatile ConcurrentHashMap<Class<?>, Subscriber[][]> routes = new ConcurrentHashMap<>();
+
+    /**
+     * Abonnement à tous les événements.
+     */
+    public void subscribe(AccountObserver observer) {
+        subscribe(observer, EnumSet.allOf(TransactionType.class), Account.class, null);
+    }
+
+    /**
+     * Abonnement aux événements de certains types de transaction.
+     */
+    public void subscribe(AccountObserver observer, Set<TransactionType> types) {
+        subscribe(observer, types, Account.class, null);
+    }
+
+    /**
+     * @param observer Abonné
+     * @param types Types de transaction reçus
+     * @param accountType Classe de compte reçue (sous-classes comprises)
+     * @param accountFilter Filtre sur le numéro de compte, ou null
+     */
+    public synchronized void subscribe(AccountObserver observer, Set<TransactionType> types,
+                                       Class<? extends Account> accountType,
+                                       Predicate<String> accountFilter) {
+        Subscriber[] next = Arrays.copyOf(subscribers, subscribers.length + 1);
+        next[next.length - 1] = new Subscriber(observer,
+                types.isEmpty() ? EnumSet.noneOf(TransactionType.class) : EnumSet.copyOf(types),
+                accountType, accountFilter);
+        subscribers = next;
+        routes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Retire tous les abonnements de cet observateur.
+     */
+    public synchronized void unsubscribe(AccountObserver observer) {
+        List<Subscriber> kept = new ArrayList<>();
+        for (Subscriber s : subscribers) {
+            if (s.observer != observer) {
+                kept.add(s);
+            }
+        }
+        subscribers = kept.toArray(NONE);
+        routes = new ConcurrentHashMap<>();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.length;
+    }
+
+    /**
+     * Transmet l'événement aux abonnés concernés.
+     */
+    public void publish(Account account, Transaction tx) {
+        if (subscribers.length == 0) {
+            return;
+        }
+        Subscriber[][] byType = routes.computeIfAbsent(account.getClass(), this::buildRoutes);
+        Subscriber[] targets = byType[tx.getType().ordinal()];
+        for (Subscriber s : targets) {
+            if (s.accountFilter == null || s.accountFilter.test(account.getAccountNumber())) {
+                s.observer.onTransaction(account, tx);
+            }
+        }
+    }
+
+    // Abonnés de chaque type de transaction pour une classe de compte
+    private Subscriber[][] buildRoutes(Class<?> accountClass) {
+        Subscriber[] all = subscribers;
+        Subscriber[][] byType = new Subscriber[TYPES.length][];
+        for (TransactionType type : TYPES) {
+            List<Subscriber> matching = new ArrayList<>();
+            for (Subscriber s : all) {
+                if (s.types.contains(type) && s.accountType.isAssignableFrom(accountClass)) {
+                    matching.add(s);
+                }
+            }
+            byType[type.ordinal()] = matching.toArray(NONE);
+        }
+        return byType;
+    }
+
+    private static final class Subscriber {
+        final AccountObserver observer;
+        final Set<TransactionType> types;
+        final Class<? extends Account> accountType;
+        final Predicate<String> accountFilter;
+
+        Subscriber(AccountObserver observer, Set<TransactionType> types,
+                   Class<? extends Account> accountType, Predicate<String> accountFilter) {
+            this.observer = observer;
+            this.types = types;
+            this.accountType = accountType;
+            this.accountFilter = accountFilter;
+        }
+    }
+}
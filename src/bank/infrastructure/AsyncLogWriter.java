@@ -0,0 +1,291 @@
+package bank.infrastructure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écrivain de log asynchrone utilisé par {@link Logger} en mode async.
+ *
+ * Les appelants déposent leurs lignes dans une file bornée sans verrou ;
+ * un unique thread d'écriture les vide dans un tampon puis dans un
+ * FileChannel gardé ouvert. Le tampon est vidé sur le disque au plus tard
+ * toutes les flushIntervalMillis ms. Quand le fichier dépasse maxFileBytes,
+ * il est renommé en .1 (les anciens en .2, .3 ... jusqu'à maxBackups).
+ *
+ * close() (et le hook d'arrêt de la JVM) écrit toutes les lignes soumises
+ * avant l'appel. La fermeture pose un bit CLOSED dans le compteur de la
+ * file par le même CAS que la réservation d'une place : une ligne est soit
+ * réservée avant la fermeture (et l'écrivain attend qu'elle soit déposée
+ * puis l'écrit), soit refusée (et {@link Logger} l'écrit lui-même).
+ */
+public class AsyncLogWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int CLOSED = Integer.MIN_VALUE;
+    // Attente maximale d'une place quand la file est pleine
+    private static final long SUBMIT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final Path file;
+    private final int capacity;
+    private final long flushIntervalNanos;
+    private final long maxFileBytes;
+    private final int maxBackups;
+
+    private final ConcurrentLinkedQueue<LogRecord> queue = new ConcurrentLinkedQueue<>();
+    // Places réservées et pas encore écrites, plus le bit CLOSED
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong submitted = new AtomicLong();
+    private volatile long written;
+    private volatile boolean flushRequested;
+    // Thread d'écriture terminé (fermeture ou erreur d'écriture)
+    private volatile boolean writerStopped;
+
+    private final Thread writerThread;
+    private final Thread shutdownHook;
+
+    // Accédés uniquement par le thread d'écriture
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private FileChannel channel;
+    private long fileSize;
+    private long appended;
+
+    /**
+     * @param file Fichier de log
+     * @param capacity Nombre maximal de lignes en attente (au-delà, l'appelant attend)
+     * @param flushIntervalMillis Délai maximal avant écriture sur disque
+     * @param maxFileBytes Taille déclenchant la rotation (0 = pas de rotation)
+     * @param maxBackups Nombre d'anciens fichiers conservés
+     * @throws PersistenceException si le fichier ne peut pas être ouvert
+     */
+    public AsyncLogWriter(Path file, int capacity, long flushIntervalMillis,
+                          long maxFileBytes, int maxBackups) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.file = file;
+        this.capacity = capacity;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, flushIntervalMillis));
+        this.maxFileBytes = maxFileBytes;
+        this.maxBackups = maxBackups;
+
+        try {
+            openChannel();
+        } catch (IOException e) {
+            throw new PersistenceException("Impossible d'ouvrir le log " + file, e);
+        }
+
+        writerThread = new Thread(this::runWriter, "bank-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+
+        shutdownHook = new Thread(this::close, "bank-log-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Dépose une ligne dans la file. Attend si la file est pleine, au plus
+     * SUBMIT_TIMEOUT_NANOS.
+     *
+     * @return false si l'écrivain est fermé ou arrêté sur une erreur, ou si
+     *         la file est restée pleine (la ligne n'a pas été prise)
+     */
+    boolean submit(String level, String msg) {
+        long deadline = 0;
+        while (true) {
+            int n = queued.get();
+            if ((n & CLOSED) != 0 || writerStopped) {
+                return false;
+            }
+            if (n >= capacity) {
+                // File pleine : réveiller l'écrivain et patienter
+                long now = System.nanoTime();
+                if (deadline == 0) {
+                    deadline = now + SUBMIT_TIMEOUT_NANOS;
+                } else if (now - deadline > 0) {
+                    return false;
+                }
+                LockSupport.unpark(writerThread);
+                LockSupport.parkNanos(10_000);
+                continue;
+            }
+            if (queued.compareAndSet(n, n + 1)) {
+                break;
+            }
+        }
+        queue.offer(new LogRecord(LocalDateTime.now(), level, msg));
+        submitted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Attend que toutes les lignes soumises jusqu'ici soient écrites dans le fichier.
+     */
+    public void flush() {
+        long target = submitted.get();
+        while (written < target && writerThread.isAlive()) {
+            flushRequested = true;
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(100_000);
+        }
+    }
+
+    /**
+     * Arrête l'écrivain après avoir écrit toutes les lignes en attente.
+     */
+    @Override
+    public void close() {
+        int n;
+        do {
+            n = queued.get();
+            if ((n & CLOSED) != 0) {
+                return;
+            }
+        } while (!queued.compareAndSet(n, n | CLOSED));
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // Arrêt de la JVM déjà en cours
+            }
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private void runWriter() {
+        long lastFlush = System.nanoTime();
+        try {
+            while (!isClosed() || pending() > 0) {
+                LogRecord rec = queue.poll();
+                if (rec != null) {
+                    queued.decrementAndGet();
+                    append(rec);
+                }
+                boolean idle = rec == null;
+                long now = System.nanoTime();
+                if (flushRequested || now - lastFlush >= flushIntervalNanos) {
+                    flushRequested = false;
+                    flushBuffer();
+                    lastFlush = now;
+                }
+                if (idle) {
+                    if (!isClosed()) {
+                        LockSupport.parkNanos(this, flushIntervalNanos);
+                    } else {
+                        // Place réservée avant la fermeture, ligne pas encore déposée
+                        Thread.onSpinWait();
+                    }
+                }
+            }
+            flushBuffer();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            writerStopped = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private boolean isClosed() {
+        return (queued.get() & CLOSED) != 0;
+    }
+
+    private int pending() {
+        return queued.get() & ~CLOSED;
+    }
+
+    private void append(LogRecord rec) throws IOException {
+        byte[] bytes = Logger.format(rec.timestamp, rec.level, rec.msg)
+                .getBytes(StandardCharsets.UTF_8);
+
+        if (maxFileBytes > 0 && fileSize > 0 && fileSize + bytes.length > maxFileBytes) {
+            flushBuffer();
+            rotate();
+        }
+        if (bytes.length > buffer.remaining()) {
+            flushBuffer();
+        }
+        if (bytes.length > buffer.capacity()) {
+            writeFully(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+        fileSize += bytes.length;
+        appended++;
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+        written = appended;
+    }
+
+    private void writeFully(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            channel.write(src);
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        if (maxBackups > 0) {
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                Path older = backup(i);
+                if (Files.exists(older)) {
+                    Files.move(older, backup(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(file, backup(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        openChannel();
+    }
+
+    private Path backup(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileSize = channel.size();
+    }
+
+    private static final class LogRecord {
+        final LocalDateTime timestamp;
+        final String level;
+        final String msg;
+
+        LogRecord(LocalDateTime timestamp, String level, String msg) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.msg = msg;
+        }
+    }
+}
@@ -1,7 +1,21 @@
 package bank.infrastructure;
 import bank.domain.Bank;
 
+import java.util.Collection;
+
 public interface BankRepository {
     void save(Bank bank);
     Bank load();
+
+    /**
+     * Persiste une opération qui n'a modifié que les comptes indiqués.
+     * Par défaut, sauvegarde toute la banque ; les repositories journalisés
+     * n'écrivent que les comptes modifiés.
+     *
+     * @param bank La banque (celle retournée par load)
+     * @param accountIds Numéros des comptes modifiés
+     */
+    default void saveChanges(Bank bank, Collection<String> accountIds) {
+        save(bank);
+    }
 }
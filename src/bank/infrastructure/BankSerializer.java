@@ -2,6 +2,11 @@ package bank.infrastructure;
 
 import bank.domain.Bank;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Interface définissant le contrat de sérialisation/désérialisation d'une Bank.
  * 
@@ -26,4 +31,29 @@ public interface BankSerializer {
      * @throws PersistenceException si le format est invalide ou corrompu
      */
     Bank deserialize(String data);
-}
\ No newline at end of file
+    
+    /**
+     * Écrit la banque directement dans un flux, sans construire de String complète.
+     * L'implémentation par défaut passe par serialize(Bank) ; les sérialiseurs
+     * qui le peuvent la redéfinissent pour garder une mémoire constante.
+     * 
+     * @param bank L'instance à sérialiser
+     * @param out Flux de destination (n'est pas fermé)
+     * @throws IOException si l'écriture échoue
+     */
+    default void serialize(Bank bank, OutputStream out) throws IOException {
+        out.write(serialize(bank).getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Reconstruit une banque en lisant un flux au fil de l'eau.
+     * 
+     * @param in Flux source (n'est pas fermé)
+     * @return Une nouvelle instance de Bank
+     * @throws IOException si la lecture échoue
+     * @throws PersistenceException si le format est invalide ou corrompu
+     */
+    default Bank deserialize(InputStream in) throws IOException {
+        return deserialize(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,345 @@
+package bank.infrastructure;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.BusinessAccount;
+import bank.domain.CreditAccount;
+import bank.domain.HistoryView;
+import bank.domain.Money;
+import bank.domain.SavingsAccount;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Sérialiseur binaire compact.
+ *
+ * Format :
+ * - en-tête : "BNKB" puis un octet de version ;
+ * - un bloc par compte : longueur (varint), contenu, CRC32 du contenu (4 octets) ;
+ * - un bloc de longueur 0 marque la fin.
+ *
+ * Contenu d'un bloc :
+ * TYPE (1 octet) | ID (varint longueur + UTF-8) | BALANCE | PARAMÈTRES | NB_TX (varint) | TX...
+ *   | PÉRIODE CLÔTURÉE (depuis la version 2 : varint longueur + UTF-8, vide si aucune)
+ * TX = TYPE (1 octet) | Δ TIMESTAMP | AMOUNT | BALANCE_AFTER
+ * Solde, historique et période sont lus ensemble (Account.snapshot).
+ *
+ * Les montants sont en centimes (varint zigzag), les timestamps en
+ * nanosecondes epoch UTC, encodés en écart avec la transaction précédente.
+ *
+ * Les méthodes String (serialize/deserialize) encodent le binaire en Base64 ;
+ * FileBankRepository utilise directement les flux.
+ */
+public class BinaryBankSerializer implements BankSerializer {
+
+    private static final byte[] MAGIC = {'B', 'N', 'K', 'B'};
+    private static final int VERSION = 2;
+    // Sans période clôturée, toujours lisible
+    private static final int VERSION_1 = 1;
+
+    private static final int TYPE_SAVINGS = 1;
+    private static final int TYPE_CREDIT = 2;
+    private static final int TYPE_BUSINESS = 3;
+
+    private static final TransactionType[] TX_TYPES = TransactionType.values();
+    // Taille maximale d'un bloc : au-delà, la longueur lue est corrompue
+    private static final long MAX_BLOCK_BYTES = 1L << 30;
+
+    @Override
+    public String serialize(Bank bank) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            serialize(bank, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // impossible avec un ByteArrayOutputStream
+        }
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    @Override
+    public Bank deserialize(String data) {
+        if (data == null || data.trim().isEmpty()) {
+            return new Bank();
+        }
+        try {
+            return deserialize(new ByteArrayInputStream(Base64.getDecoder().decode(data.trim())));
+        } catch (IllegalArgumentException e) {
+            throw new PersistenceException("Données binaires invalides", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void serialize(Bank bank, OutputStream out) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+
+        // Tampon réutilisé d'un bloc à l'autre
+        ByteArrayOutputStream block = new ByteArrayOutputStream();
+        CRC32 crc = new CRC32();
+
+        for (Account acc : bank.getAllAccounts()) {
+            block.reset();
+            writeAccount(acc, block);
+
+            crc.reset();
+            crc.update(block.toByteArray(), 0, block.size());
+            writeVarLong(out, block.size());
+            block.writeTo(out);
+            writeInt(out, (int) crc.getValue());
+        }
+        writeVarLong(out, 0); // fin
+        out.flush();
+    }
+
+    @Override
+    public Bank deserialize(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+
+        byte[] magic = new byte[MAGIC.length];
+        try {
+            data.readFully(magic);
+        } catch (EOFException e) {
+            return new Bank(); // fichier vide
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic[i] != MAGIC[i]) {
+                throw new PersistenceException("Ce n'est pas un snapshot binaire");
+            }
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION && version != VERSION_1) {
+            throw new PersistenceException("Version de snapshot non supportée : " + version);
+        }
+
+        Bank bank = new Bank();
+        CRC32 crc = new CRC32();
+        while (true) {
+            long length = readVarLong(data);
+            if (length == 0) {
+                return bank;
+            }
+            if (length < 0 || length > MAX_BLOCK_BYTES) {
+                throw new PersistenceException("Bloc corrompu (longueur " + length + ")");
+            }
+            // readNBytes alloue au fil de la lecture : une longueur fausse sur
+            // un fichier tronqué n'alloue pas le bloc entier
+            byte[] payload = data.readNBytes((int) length);
+            if (payload.length < length) {
+                throw new PersistenceException("Bloc corrompu (snapshot tronqué)");
+            }
+            int expected = data.readInt();
+
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != expected) {
+                throw new PersistenceException("Bloc corrompu (CRC invalide)");
+            }
+            bank.addAccount(readAccount(new DataInputStream(new ByteArrayInputStream(payload)), version));
+        }
+    }
+
+    /**
+     * Écrit un compte et ses transactions.
+     */
+    private void writeAccount(Account acc, OutputStream out) throws IOException {
+        Account.Snapshot snapshot = acc.snapshot(0);
+        if (acc instanceof SavingsAccount) {
+            SavingsAccount sa = (SavingsAccount) acc;
+            out.write(TYPE_SAVINGS);
+            writeString(out, sa.getAccountNumber());
+            writeAmount(out, snapshot.getBalanceMinor());
+            writeDouble(out, sa.getInterestRate());
+
+        } else if (acc instanceof CreditAccount) {
+            CreditAccount ca = (CreditAccount) acc;
+            out.write(TYPE_CREDIT);
+            writeString(out, ca.getAccountNumber());
+            writeAmount(out, snapshot.getBalanceMinor());
+            writeAmount(out, ca.getCreditLimitMinor());
+
+        } else if (acc instanceof BusinessAccount) {
+            BusinessAccount ba = (BusinessAccount) acc;
+            out.write(TYPE_BUSINESS);
+            writeString(out, ba.getAccountNumber());
+            writeAmount(out, snapshot.getBalanceMinor());
+            writeAmount(out, ba.getCreditLimitMinor());
+            writeDouble(out, ba.getInterestRate());
+            writeString(out, ba.getTier());
+
+        } else {
+            throw new PersistenceException("Type de compte non supporté : " + acc.getClass());
+        }
+
+        // Vue sans copie, lue colonne par colonne : aucun objet par transaction
+        HistoryView history = snapshot.getHistory();
+        writeVarLong(out, history.size());
+        long previous = 0;
+        for (int i = 0; i < history.size(); i++) {
+            long nanos = history.epochNanosAt(i);
+            out.write(history.typeAt(i).ordinal());
+            writeVarLong(out, zigzag(nanos - previous));
+            writeAmount(out, history.amountMinorAt(i));
+            writeAmount(out, history.balanceAfterMinorAt(i));
+            previous = nanos;
+        }
+        String closedPeriod = snapshot.getClosedPeriod();
+        writeString(out, closedPeriod == null ? "" : closedPeriod);
+    }
+
+    /**
+     * Lit un compte et restaure son historique (timestamps et soldes d'origine).
+     */
+    private Account readAccount(DataInputStream in, int version) throws IOException {
+        int type = in.readUnsignedByte();
+        String accountNumber = readString(in);
+        long balance = readAmount(in);
+
+        Account account;
+        switch (type) {
+            case TYPE_SAVINGS:
+                account = new SavingsAccount(accountNumber, 0, in.readDouble());
+                break;
+            case TYPE_CREDIT:
+                account = new CreditAccount(accountNumber, 0, Money.toMajor(readAmount(in)));
+                break;
+            case TYPE_BUSINESS:
+                double creditLimit = Money.toMajor(readAmount(in));
+                double interestRate = in.readDouble();
+                account = new BusinessAccount(accountNumber, 0, creditLimit, interestRate,
+                        readString(in));
+                break;
+            default:
+                throw new PersistenceException("Type de compte inconnu : " + type);
+        }
+
+        account.setBalanceMinor(balance);
+
+        // Une transaction occupe au moins 4 octets du bloc
+        int count = checkLength(readVarLong(in), in.available() / 4);
+        List<Transaction> history = new ArrayList<>(count);
+        long nanos = 0;
+        for (int i = 0; i < count; i++) {
+            int txType = in.readUnsignedByte();
+            if (txType >= TX_TYPES.length) {
+                throw new PersistenceException("Type de transaction inconnu : " + txType);
+            }
+            nanos += unzigzag(readVarLong(in));
+            long amount = readAmount(in);
+            long balanceAfter = readAmount(in);
+            history.add(Transaction.ofMinor(fromEpochNanos(nanos), TX_TYPES[txType], amount, balanceAfter));
+        }
+        try {
+            account.restoreHistory(history);
+        } catch (IllegalArgumentException e) {
+            throw new PersistenceException("Historique invalide pour "
+                    + account.getAccountNumber() + " : " + e.getMessage(), e);
+        }
+        if (version >= 2) {
+            String closedPeriod = readString(in);
+            if (!closedPeriod.isEmpty()) {
+                account.setClosedPeriod(closedPeriod);
+            }
+        }
+        return account;
+    }
+
+    // ============================================
+    // Encodage bas niveau
+    // ============================================
+
+    private static LocalDateTime fromEpochNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static void writeAmount(OutputStream out, long amount) throws IOException {
+        writeVarLong(out, zigzag(amount));
+    }
+
+    private static long readAmount(InputStream in) throws IOException {
+        return unzigzag(readVarLong(in));
+    }
+
+    private static void writeString(OutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes);
+    }
+
+    // in est toujours le contenu d'un bloc en mémoire : available() est exact
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[checkLength(readVarLong(in), in.available())];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int checkLength(long length, int remaining) {
+        if (length < 0 || length > remaining) {
+            throw new PersistenceException("Bloc corrompu (longueur " + length + ")");
+        }
+        return (int) length;
+    }
+
+    private static void writeDouble(OutputStream out, double value) throws IOException {
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (bits >>> shift));
+        }
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(InputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Snapshot binaire tronqué");
+            }
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new PersistenceException("Varint invalide");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
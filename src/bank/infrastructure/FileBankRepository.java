@@ -4,14 +4,26 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 
 import bank.domain.Bank;
+import bank.infrastructure.metrics.MetricsRegistry;
+import bank.infrastructure.metrics.OperationMetrics;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 
 
 public class FileBankRepository implements BankRepository {
     
+    private static final OperationMetrics SAVE_METRICS =
+        MetricsRegistry.global().operation("repository.save");
+    private static final OperationMetrics LOAD_METRICS =
+        MetricsRegistry.global().operation("repository.load");
+    
     private final Path path;
     private final BankSerializer serializer;
+    private final boolean memoryMapped;
     
     /**
      * Crée un repository fichier avec un chemin et un serializer spécifiques.
@@ -20,8 +32,19 @@ public class FileBankRepository implements BankRepository {
      * @param serializer Stratégie de sérialisation à utiliser
      */
     public FileBankRepository(Path path, BankSerializer serializer) {
+        this(path, serializer, false);
+    }
+    
+    /**
+     * @param path Chemin du fichier de persistance
+     * @param serializer Stratégie de sérialisation à utiliser
+     * @param memoryMapped true pour charger le fichier par projection mémoire
+     *                     (voir {@link MappedInputStream}) plutôt que par lecture
+     */
+    public FileBankRepository(Path path, BankSerializer serializer, boolean memoryMapped) {
         this.path = path;
         this.serializer = serializer;
+        this.memoryMapped = memoryMapped;
     }
     
     /**
@@ -32,17 +55,21 @@ public class FileBankRepository implements BankRepository {
      */
     @Override
     public void save(Bank bank) throws PersistenceException {
-        try {
-            // Sérialiser la banque en chaîne de caractères
-            String data = serializer.serialize(bank);
-            
-            // Écrire dans le fichier
-            Files.writeString(path, data);
+        long start = System.nanoTime();
+        // Sérialiser la banque directement dans le fichier (mémoire constante)
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            serializer.serialize(bank, out);
             
         } catch (IOException e) {
-            throw new PersistenceException(
+            PersistenceException failure = new PersistenceException(
                 "Erreur lors de la sauvegarde dans " + path, e);
+            SAVE_METRICS.recordFailure(start, failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            SAVE_METRICS.recordFailure(start, e);
+            throw e;
         }
+        SAVE_METRICS.recordSuccess(start);
     }
     
     /**
@@ -53,6 +80,18 @@ public class FileBankRepository implements BankRepository {
      */
     @Override
     public Bank load() throws PersistenceException {
+        long start = System.nanoTime();
+        try {
+            Bank bank = doLoad();
+            LOAD_METRICS.recordSuccess(start);
+            return bank;
+        } catch (RuntimeException e) {
+            LOAD_METRICS.recordFailure(start, e);
+            throw e;
+        }
+    }
+    
+    private Bank doLoad() {
         try {
             // Vérifier si le fichier existe
             if (!Files.exists(path)) {
@@ -60,11 +99,12 @@ public class FileBankRepository implements BankRepository {
                     "Le fichier " + path + " n'existe pas");
             }
             
-            // Lire le contenu du fichier
-            String data = Files.readString(path);
-            
-            // Désérialiser et retourner la banque
-            return serializer.deserialize(data);
+            // Lire et désérialiser le fichier au fil de l'eau
+            try (InputStream in = memoryMapped
+                    ? new MappedInputStream(path)
+                    : new BufferedInputStream(Files.newInputStream(path))) {
+                return serializer.deserialize(in);
+            }
             
         } catch (IOException e) {
             throw new PersistenceException(
@@ -0,0 +1,562 @@
+package bank.infrastructure;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.HistoryView;
+import bank.domain.Money;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+import bank.errors.UnknownAccountException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Repository fichier avec journal d'écriture anticipée (write-ahead log).
+ *
+ * - save(bank) écrit un snapshot complet (checkpoint) et vide le journal ;
+ * - saveChanges(bank, ids) ajoute une seule ligne au journal avec le nouveau
+ *   solde des comptes modifiés et leurs nouvelles transactions : coût
+ *   proportionnel à l'opération, pas à la banque ;
+ * - load() relit le dernier snapshot puis rejoue le journal, une seule fois :
+ *   la banque restaurée reste ensuite en mémoire (comme InMemoryBankRepository).
+ *
+ * Les comptes d'une ligne sont lus sous leurs verrous (pris dans l'ordre des
+ * numéros, comme Bank.transfer) : un transfert n'est jamais journalisé à
+ * moitié.
+ *
+ * Commit groupé : les appels concurrents à saveChanges sont écrits et
+ * synchronisés sur disque (fsync) ensemble par un seul thread « leader ».
+ * Toutes les checkpointInterval lignes, le journal courant est renommé en
+ * <journal>.old et le snapshot est réécrit hors du verrou de commit : les
+ * autres threads continuent de journaliser pendant ce temps. Le snapshot
+ * pouvant contenir des opérations journalisées après ce renommage, le rejeu
+ * ignore les transactions déjà présentes (indice dans l'historique).
+ *
+ * Format du journal, une ligne par opération, terminée par le CRC32 (hexa)
+ * du reste de la ligne pour détecter une fin de journal tronquée. Pour chaque
+ * compte : solde @ indice de la première transaction [# période clôturée]
+ * | transactions :
+ * OP;SA-1001=850.00@12|WITHDRAW,150.00,850.00,2024-05-01T10:15:30;CR-2001=650.00@3#2025-12;1a2b3c4d
+ * (les lignes sans @, sans historique, sont encore relues).
+ */
+public class JournaledBankRepository implements BankRepository, AutoCloseable {
+
+    private static final String OP_PREFIX = "OP";
+    private static final String SEPARATOR = ";";
+    private static final char HISTORY_START = '@';
+    private static final char CLOSED_PERIOD = '#';
+    private static final String TX_SEPARATOR = "|";
+    private static final String FIELD_SEPARATOR = ",";
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    // Journal en attente d'un checkpoint en cours (ou interrompu)
+    private final Path oldJournalPath;
+    private final BankSerializer serializer;
+    private final int checkpointInterval;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = lock.newCondition();
+    // Un seul checkpoint à la fois ; toujours pris avant lock
+    private final ReentrantLock checkpointLock = new ReentrantLock();
+
+    // Protégés par lock
+    private Bank bank;
+    private FileChannel journal;
+    private final Set<String> checkpointedIds = new HashSet<>();
+    // Par compte : indice de la prochaine transaction à journaliser
+    private final Map<String, Integer> journaledHistory = new HashMap<>();
+    private StringBuilder pending = new StringBuilder();
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    // Après un échec d'écriture du journal, le repository refuse toute nouvelle opération
+    private boolean broken;
+    private int recordsSinceCheckpoint;
+
+    /**
+     * @param snapshotPath Fichier du snapshot complet
+     * @param journalPath Fichier du journal
+     * @param serializer Format du snapshot
+     * @param checkpointInterval Nombre de lignes de journal entre deux checkpoints
+     */
+    public JournaledBankRepository(Path snapshotPath, Path journalPath,
+                                   BankSerializer serializer, int checkpointInterval) {
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+        this.oldJournalPath = journalPath.resolveSibling(journalPath.getFileName() + ".old");
+        this.serializer = serializer;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Checkpoint : écrit un snapshot complet puis vide le journal.
+     *
+     * @throws PersistenceException si l'écriture échoue
+     */
+    @Override
+    public void save(Bank bank) throws PersistenceException {
+        checkpointLock.lock();
+        lock.lock();
+        try {
+            this.bank = bank;
+            checkpoint();
+        } finally {
+            lock.unlock();
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Retourne la banque en mémoire, restaurée au premier appel depuis le
+     * snapshot et le journal.
+     *
+     * @return La banque, ou null si rien n'a jamais été sauvegardé
+     * @throws PersistenceException si la lecture échoue
+     */
+    @Override
+    public Bank load() throws PersistenceException {
+        checkpointLock.lock();
+        lock.lock();
+        try {
+            if (bank == null && (Files.exists(snapshotPath) || Files.exists(journalPath)
+                    || Files.exists(oldJournalPath))) {
+                recover();
+            }
+            return bank;
+        } finally {
+            lock.unlock();
+            checkpointLock.unlock();
+        }
+    }
+
+    /**
+     * Ajoute au journal le solde courant et les nouvelles transactions des
+     * comptes modifiés, lus sous leurs verrous, puis attend que la ligne soit
+     * durable (fsync), éventuellement avec les lignes d'autres threads.
+     *
+     * @throws PersistenceException si l'écriture du journal échoue
+     */
+    @Override
+    public void saveChanges(Bank bank, Collection<String> accountIds) throws PersistenceException {
+        // Comptes triés par numéro : même ordre de verrouillage que Bank.transfer
+        TreeMap<String, Account> accounts = new TreeMap<>();
+        for (String id : accountIds) {
+            accounts.put(id, bank.getAccount(id));
+        }
+        long mySeq = appendLocked(bank, accounts.values().toArray(new Account[0]), 0);
+        if (mySeq < 0) {
+            // Nouvelle banque ou nouveau compte : pas exprimable dans le journal
+            save(bank);
+            return;
+        }
+
+        boolean checkpointDue;
+        lock.lock();
+        try {
+            while (durableSeq < mySeq) {
+                if (broken) {
+                    throw new PersistenceException("Journal " + journalPath + " inutilisable");
+                }
+                if (flushing) {
+                    committed.awaitUninterruptibly();
+                    continue;
+                }
+                commitPending();
+            }
+            checkpointDue = recordsSinceCheckpoint >= checkpointInterval;
+        } finally {
+            lock.unlock();
+        }
+        if (checkpointDue) {
+            rotatingCheckpoint();
+        }
+    }
+
+    /**
+     * Prend récursivement les verrous de accounts[i..], puis lit les comptes
+     * et ajoute la ligne aux lignes en attente (sous lock : l'ordre du journal
+     * suit l'ordre des lectures).
+     *
+     * @return Numéro de la ligne, ou -1 si elle n'est pas exprimable dans le journal
+     */
+    private long appendLocked(Bank bank, Account[] accounts, int i) {
+        if (i < accounts.length) {
+            synchronized (accounts[i]) {
+                return appendLocked(bank, accounts, i + 1);
+            }
+        }
+        lock.lock();
+        try {
+            if (bank != this.bank) {
+                return -1;
+            }
+            for (Account acc : accounts) {
+                if (!checkpointedIds.contains(acc.getAccountNumber())) {
+                    return -1;
+                }
+            }
+            StringBuilder record = new StringBuilder(OP_PREFIX);
+            for (Account acc : accounts) {
+                String id = acc.getAccountNumber();
+                Account.Snapshot snapshot = acc.snapshot(journaledHistory.getOrDefault(id, 0));
+                HistoryView delta = snapshot.getHistory();
+                record.append(SEPARATOR).append(id).append('=');
+                Money.appendTo(record, snapshot.getBalanceMinor())
+                    .append(HISTORY_START).append(delta.getFromIndex());
+                if (snapshot.getClosedPeriod() != null) {
+                    record.append(CLOSED_PERIOD).append(snapshot.getClosedPeriod());
+                }
+                for (int t = 0; t < delta.size(); t++) {
+                    appendTransaction(record, delta, t);
+                }
+                journaledHistory.put(id, delta.getFromIndex() + delta.size());
+            }
+            pending.append(record).append(SEPARATOR).append(crc(record)).append('\n');
+            return ++appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void appendTransaction(StringBuilder record, HistoryView history, int i) {
+        record.append(TX_SEPARATOR).append(history.typeAt(i)).append(FIELD_SEPARATOR);
+        Money.appendTo(record, history.amountMinorAt(i)).append(FIELD_SEPARATOR);
+        Money.appendTo(record, history.balanceAfterMinorAt(i)).append(FIELD_SEPARATOR);
+        record.append(history.timestampAt(i));
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (journal != null) {
+                journal.close();
+                journal = null;
+            }
+        } catch (IOException e) {
+            throw new PersistenceException("Erreur de fermeture du journal " + journalPath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Leader du commit groupé : écrit toutes les lignes en attente et fait
+     * un seul fsync. Le verrou est relâché pendant l'I/O pour que d'autres
+     * threads puissent préparer le lot suivant.
+     */
+    private void commitPending() {
+        flushing = true;
+        byte[] batch = pending.toString().getBytes(StandardCharsets.UTF_8);
+        int batchRecords = (int) (appendedSeq - durableSeq);
+        pending = new StringBuilder();
+        long upTo = appendedSeq;
+
+        IOException failure = null;
+        FileChannel channel = null;
+        try {
+            channel = journalChannel();
+        } catch (IOException e) {
+            failure = e;
+        }
+        lock.unlock();
+        try {
+            if (channel != null) {
+                ByteBuffer buf = ByteBuffer.wrap(batch);
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+        } finally {
+            lock.lock();
+        }
+
+        flushing = false;
+        if (failure == null) {
+            durableSeq = upTo;
+            recordsSinceCheckpoint += batchRecords;
+        } else {
+            broken = true;
+        }
+        committed.signalAll();
+        if (failure != null) {
+            throw new PersistenceException("Échec d'écriture du journal " + journalPath, failure);
+        }
+    }
+
+    // Appelé avec checkpointLock et lock : snapshot atomique puis journaux vidés
+    private void checkpoint() {
+        while (flushing) {
+            committed.awaitUninterruptibly();
+        }
+        // Tailles lues avant le snapshot : il contient au moins ces transactions
+        Map<String, Integer> historySizes = new HashMap<>();
+        for (Account acc : bank.getAllAccounts()) {
+            historySizes.put(acc.getAccountNumber(), acc.history().size());
+        }
+        try {
+            writeSnapshot(bank);
+            journalChannel().truncate(0);
+            journal.force(true);
+            Files.deleteIfExists(oldJournalPath);
+        } catch (IOException e) {
+            throw new PersistenceException("Erreur lors du checkpoint dans " + snapshotPath, e);
+        }
+        checkpointedIds.clear();
+        checkpointedIds.addAll(historySizes.keySet());
+        journaledHistory.clear();
+        journaledHistory.putAll(historySizes);
+        recordsSinceCheckpoint = 0;
+
+        // Les lignes pas encore écrites sont couvertes par le snapshot
+        pending = new StringBuilder();
+        durableSeq = appendedSeq;
+        broken = false;
+        committed.signalAll();
+    }
+
+    /**
+     * Checkpoint périodique (appelé sans lock) : le journal courant devient
+     * oldJournalPath sous lock, puis le snapshot est écrit sans lock pendant
+     * que les autres threads journalisent dans un nouveau fichier. En cas
+     * d'arrêt avant la fin, load() rejoue les deux journaux.
+     * Sans effet si un autre checkpoint est en cours.
+     */
+    private void rotatingCheckpoint() {
+        if (!checkpointLock.tryLock()) {
+            return;
+        }
+        try {
+            Bank snapshotBank;
+            lock.lock();
+            try {
+                while (flushing) {
+                    committed.awaitUninterruptibly();
+                }
+                if (recordsSinceCheckpoint < checkpointInterval) {
+                    return; // fait entre-temps par save()
+                }
+                rotateJournal();
+                recordsSinceCheckpoint = 0;
+                snapshotBank = bank;
+            } finally {
+                lock.unlock();
+            }
+            writeSnapshot(snapshotBank);
+            Files.deleteIfExists(oldJournalPath);
+        } catch (IOException e) {
+            throw new PersistenceException("Erreur lors du checkpoint dans " + snapshotPath, e);
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    // Appelé avec lock, sans écriture en cours : le journal courant rejoint oldJournalPath
+    private void rotateJournal() throws IOException {
+        if (journal != null) {
+            journal.close();
+            journal = null;
+        }
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        if (!Files.exists(oldJournalPath)) {
+            Files.move(journalPath, oldJournalPath, StandardCopyOption.ATOMIC_MOVE);
+            return;
+        }
+        // Checkpoint précédent interrompu : ses lignes restent avant les nôtres
+        try (FileChannel old = FileChannel.open(oldJournalPath, StandardOpenOption.WRITE,
+                     StandardOpenOption.APPEND);
+             FileChannel current = FileChannel.open(journalPath, StandardOpenOption.READ)) {
+            long position = 0;
+            long size = current.size();
+            while (position < size) {
+                position += current.transferTo(position, size - position, old);
+            }
+            old.force(true);
+        }
+        Files.delete(journalPath);
+    }
+
+    // Snapshot atomique : fichier temporaire + move
+    private void writeSnapshot(Bank bank) throws IOException {
+        Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(snapshot));
+            serializer.serialize(bank, out);
+            out.flush();
+            snapshot.force(true);
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Appelé avec lock : dernier snapshot + rejeu du journal
+    private void recover() {
+        try {
+            if (Files.exists(snapshotPath)) {
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshotPath))) {
+                    bank = serializer.deserialize(in);
+                }
+            } else {
+                bank = new Bank();
+            }
+
+            // Journal d'un checkpoint interrompu, puis journal courant
+            replayJournal(oldJournalPath);
+            replayJournal(journalPath);
+        } catch (IOException e) {
+            throw new PersistenceException("Erreur lors de la restauration depuis " + journalPath, e);
+        }
+        // Le snapshot repart de l'état restauré et le journal rejoué est intégré
+        checkpoint();
+    }
+
+    private void replayJournal(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                try {
+                    if (!replay(line)) {
+                        break; // fin de journal tronquée par un arrêt brutal
+                    }
+                } catch (UnknownAccountException e) {
+                    // Ligne intègre (CRC valide) mais absente du snapshot
+                    throw new PersistenceException("Journal " + path + ", ligne " + lineNumber
+                            + " : " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    private boolean replay(String line) {
+        int crcStart = line.lastIndexOf(SEPARATOR);
+        if (crcStart < 0 || !line.substring(crcStart + 1).equals(crc(line.substring(0, crcStart)))) {
+            return false;
+        }
+        String[] parts = line.substring(0, crcStart).split(SEPARATOR);
+        if (parts.length < 2 || !OP_PREFIX.equals(parts[0])) {
+            return false;
+        }
+        long[] balances = new long[parts.length - 1];
+        int[] historyFrom = new int[parts.length - 1];
+        String[] closedPeriods = new String[parts.length - 1];
+        List<List<Transaction>> transactions = new ArrayList<>();
+        Account[] accounts = new Account[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            int eq = parts[i].indexOf('=');
+            if (eq <= 0) {
+                return false;
+            }
+            String[] fields = parts[i].substring(eq + 1).split("\\" + TX_SEPARATOR);
+            String head = fields[0];
+            int hash = head.indexOf(CLOSED_PERIOD);
+            if (hash >= 0) {
+                closedPeriods[i - 1] = head.substring(hash + 1);
+                head = head.substring(0, hash);
+            }
+            int at = head.indexOf(HISTORY_START);
+            List<Transaction> txs = new ArrayList<>(fields.length - 1);
+            try {
+                balances[i - 1] = Money.parse(at < 0 ? head : head.substring(0, at));
+                // Ancien format, sans historique : -1
+                historyFrom[i - 1] = at < 0 ? -1 : Integer.parseInt(head.substring(at + 1));
+                for (int t = 1; t < fields.length; t++) {
+                    String[] tx = fields[t].split(FIELD_SEPARATOR);
+                    if (tx.length != 4) {
+                        return false;
+                    }
+                    txs.add(Transaction.ofMinor(LocalDateTime.parse(tx[3]), TransactionType.valueOf(tx[0]),
+                            Money.parse(tx[1]), Money.parse(tx[2])));
+                }
+            } catch (IllegalArgumentException | ArithmeticException | DateTimeParseException e) {
+                return false;
+            }
+            transactions.add(txs);
+            accounts[i - 1] = bank.getAccount(parts[i].substring(0, eq));
+        }
+        for (int i = 0; i < accounts.length; i++) {
+            replayAccount(accounts[i], balances[i], historyFrom[i], closedPeriods[i], transactions.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Applique la partie d'une ligne concernant un compte. Les transactions
+     * déjà dans l'historique (snapshot écrit après la ligne, voir
+     * rotatingCheckpoint) sont ignorées, et le compte entier si le snapshot
+     * contient des transactions plus récentes que la ligne.
+     */
+    private static void replayAccount(Account acc, long balance, int historyFrom, String closedPeriod,
+                                      List<Transaction> txs) {
+        if (historyFrom < 0) {
+            acc.setBalanceMinor(balance);
+            return;
+        }
+        int known = acc.history().size();
+        if (historyFrom + txs.size() < known) {
+            return;
+        }
+        try {
+            acc.restoreHistory(txs.subList(Math.max(0, known - historyFrom), txs.size()));
+        } catch (IllegalArgumentException e) {
+            throw new PersistenceException("Journal invalide pour "
+                    + acc.getAccountNumber() + " : " + e.getMessage(), e);
+        }
+        acc.setBalanceMinor(balance);
+        if (!Objects.equals(closedPeriod, acc.getClosedPeriod())) {
+            acc.setClosedPeriod(closedPeriod);
+        }
+    }
+
+    private static String crc(CharSequence record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.toString().getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc.getValue());
+    }
+
+    private FileChannel journalChannel() throws IOException {
+        if (journal == null) {
+            journal = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return journal;
+    }
+}
@@ -0,0 +1,13 @@
+package bank.infrastructure;
+
+/**
+ * Niveaux du Logger, du plus détaillé au plus grave.
+ * OFF comme seuil désactive tout.
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
@@ -1,29 +1,262 @@
 package bank.infrastructure;
 
+import bank.domain.Money;
+
 import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+/**
+ * Logger de l'application (bank.log).
+ *
+ * - Niveaux : un seuil global (setLevel) et, au besoin, un seuil par
+ *   catégorie. isEnabled(level) est une simple comparaison.
+ * - Messages paramétrés : log(level, "Retrait {} sur {}", montant, id) ne
+ *   formate le message que si la ligne est réellement écrite. Variante
+ *   Supplier pour les messages plus complexes.
+ * - Montants : logAmount(level, "Retrait {} sur {}", centimes, id) affiche
+ *   les arguments long comme des montants en centimes (1234.50) sans les
+ *   convertir en objet. Avec log(...), un long reste un nombre ordinaire.
+ * - Échantillonnage par catégorie (setSampling) : seule une ligne sur n des
+ *   niveaux DEBUG et INFO est écrite ; WARN et ERROR le sont toujours.
+ *
+ * Une ligne non écrite (niveau désactivé ou échantillonnée) n'alloue rien.
+ */
 public class Logger {
 
+    public static final String DEFAULT_CATEGORY = "bank";
+
     private static final String LOG_FILE = "bank.log";
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    // Un seul verrou pour toutes les instances : elles partagent le même fichier
+    private static final Object LOCK = new Object();
+
+    // Mode asynchrone partagé par toutes les instances (null = mode synchrone)
+    private static volatile AsyncLogWriter asyncWriter;
+
+    private static volatile LogLevel globalLevel = LogLevel.INFO;
+    private static final Map<String, Category> CATEGORIES = new ConcurrentHashMap<>();
+
+    private final Category category;
+
+    public Logger() {
+        this(DEFAULT_CATEGORY);
+    }
+
+    /**
+     * @param category Catégorie des lignes (seuil et échantillonnage propres)
+     */
+    public Logger(String category) {
+        this.category = category(category);
+    }
+
+    /**
+     * Seuil global : les lignes de niveau inférieur ne sont pas écrites.
+     */
+    public static void setLevel(LogLevel level) {
+        globalLevel = level;
+    }
+
+    public static LogLevel getLevel() {
+        return globalLevel;
+    }
+
+    /**
+     * Seuil propre à une catégorie (null = seuil global).
+     */
+    public static void setLevel(String category, LogLevel level) {
+        category(category).level = level;
+    }
+
+    /**
+     * N'écrit qu'une ligne DEBUG / INFO sur oneIn pour cette catégorie
+     * (1 = tout écrire).
+     */
+    public static void setSampling(String category, int oneIn) {
+        if (oneIn < 1) {
+            throw new IllegalArgumentException("oneIn must be >= 1");
+        }
+        category(category).sampling = oneIn;
+    }
+
+    private static Category category(String name) {
+        return CATEGORIES.computeIfAbsent(name, n -> new Category());
+    }
+
+    /**
+     * Passe tous les Logger en mode asynchrone.
+     * Un éventuel écrivain précédent est fermé (ses lignes sont écrites).
+     */
+    public static void enableAsync(AsyncLogWriter writer) {
+        AsyncLogWriter previous = asyncWriter;
+        asyncWriter = writer;
+        if (previous != null && previous != writer) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Revient au mode synchrone après avoir écrit les lignes en attente.
+     */
+    public static void disableAsync() {
+        AsyncLogWriter previous = asyncWriter;
+        asyncWriter = null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        LogLevel threshold = category.level;
+        if (threshold == null) {
+            threshold = globalLevel;
+        }
+        return level != LogLevel.OFF && level.compareTo(threshold) >= 0;
+    }
 
     public void logInfo(String msg) {
-        log("INFO", msg);
+        log(LogLevel.INFO, msg);
     }
 
     public void logError(String msg) {
-        log("ERROR", msg);
+        log(LogLevel.ERROR, msg);
     }
 
-    private void log(String level, String msg) {
-        String timestamp = LocalDateTime.now()
-                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        try (FileWriter fw = new FileWriter(LOG_FILE, true)) {
-            fw.write(String.format("[%s] %s - %s%n", timestamp, level, msg));
-        } catch (IOException e) {
-            e.printStackTrace();
+    public void log(LogLevel level, String msg) {
+        if (accept(level)) {
+            write(level, msg);
         }
     }
+
+    public void log(LogLevel level, Supplier<String> msg) {
+        if (accept(level)) {
+            write(level, msg.get());
+        }
+    }
+
+    public void log(LogLevel level, String pattern, Object arg) {
+        if (accept(level)) {
+            write(level, new Formatter(pattern).arg(arg).finish());
+        }
+    }
+
+    public void log(LogLevel level, String pattern, Object arg1, Object arg2) {
+        if (accept(level)) {
+            write(level, new Formatter(pattern).arg(arg1).arg(arg2).finish());
+        }
+    }
+
+    public void log(LogLevel level, String pattern, Object arg1, Object arg2, Object arg3) {
+        if (accept(level)) {
+            write(level, new Formatter(pattern).arg(arg1).arg(arg2).arg(arg3).finish());
+        }
+    }
+
+    // Montant en centimes puis un argument (ex. "Dépôt de {} sur {}")
+    public void logAmount(LogLevel level, String pattern, long amountMinor, Object arg) {
+        if (accept(level)) {
+            write(level, new Formatter(pattern).amount(amountMinor).arg(arg).finish());
+        }
+    }
+
+    // Montant, argument, montant (ex. "Retrait de {} sur {} (frais {})")
+    public void logAmount(LogLevel level, String pattern, long amountMinor, Object arg, long amount2Minor) {
+        if (accept(level)) {
+            write(level, new Formatter(pattern).amount(amountMinor).arg(arg).amount(amount2Minor).finish());
+        }
+    }
+
+    // Montant puis deux arguments (ex. "Transfert de {} de {} vers {}")
+    public void logAmount(LogLevel level, String pattern, long amountMinor, Object arg1, Object arg2) {
+        if (accept(level)) {
+            write(level, new Formatter(pattern).amount(amountMinor).arg(arg1).arg(arg2).finish());
+        }
+    }
+
+    // Niveau actif et, pour DEBUG / INFO, ligne retenue par l'échantillonnage
+    private boolean accept(LogLevel level) {
+        if (!isEnabled(level)) {
+            return false;
+        }
+        int sampling = category.sampling;
+        return sampling <= 1 || level.compareTo(LogLevel.WARN) >= 0
+                || category.counter.getAndIncrement() % sampling == 0;
+    }
+
+    private void write(LogLevel logLevel, String msg) {
+        String level = logLevel.name();
+        AsyncLogWriter writer = asyncWriter;
+        if (writer != null && writer.submit(level, msg)) {
+            return;
+        }
+        String line = format(LocalDateTime.now(), level, msg);
+        synchronized (LOCK) {
+            try (FileWriter fw = new FileWriter(LOG_FILE, true)) {
+                fw.write(line);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static final class Category {
+        volatile LogLevel level;
+        volatile int sampling = 1;
+        final AtomicLong counter = new AtomicLong();
+    }
+
+    /**
+     * Remplace les {} du motif par les arguments, dans l'ordre.
+     */
+    private static final class Formatter {
+        private final String pattern;
+        private final StringBuilder sb;
+        private int from;
+
+        Formatter(String pattern) {
+            this.pattern = pattern;
+            this.sb = new StringBuilder(pattern.length() + 32);
+        }
+
+        Formatter arg(Object value) {
+            if (next()) {
+                sb.append(value);
+            }
+            return this;
+        }
+
+        Formatter amount(long minor) {
+            if (next()) {
+                Money.appendTo(sb, minor);
+            }
+            return this;
+        }
+
+        // Copie le texte jusqu'au prochain {} ; false s'il n'y en a plus
+        private boolean next() {
+            int at = pattern.indexOf("{}", from);
+            if (at < 0) {
+                return false;
+            }
+            sb.append(pattern, from, at);
+            from = at + 2;
+            return true;
+        }
+
+        String finish() {
+            return sb.append(pattern, from, pattern.length()).toString();
+        }
+    }
+
+    // Format commun aux modes synchrone et asynchrone
+    static String format(LocalDateTime timestamp, String level, String msg) {
+        return "[" + timestamp.format(FORMATTER) + "] " + level + " - " + msg
+                + System.lineSeparator();
+    }
 }
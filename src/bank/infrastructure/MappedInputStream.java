@@ -0,0 +1,159 @@
+package bank.infrastructure;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * InputStream lisant un fichier projeté en mémoire (FileChannel.map).
+ *
+ * Le fichier est projeté par fenêtres successives de windowSize octets :
+ * un MappedByteBuffer est limité à 2 Go, les fichiers plus gros sont donc
+ * lus fenêtre par fenêtre. Une seule fenêtre est projetée à la fois : la
+ * précédente est libérée explicitement (Unsafe.invokeCleaner) dès que la
+ * suivante est projetée, et la dernière à la fermeture. Sans cela, les
+ * projections ne seraient rendues qu'au passage du GC.
+ *
+ * read(byte[]) copie directement de la projection vers le tableau de
+ * l'appelant (pas de tampon intermédiaire) ; skip() avance sans copier.
+ */
+public class MappedInputStream extends InputStream {
+
+    public static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    // Libération explicite d'une projection ; null si indisponible (le GC s'en charge)
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+
+    // Position dans le fichier du début de la fenêtre suivante
+    private long nextStart;
+    private MappedByteBuffer window;
+
+    public MappedInputStream(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * @param path Fichier à lire
+     * @param windowSize Taille d'une fenêtre (au plus Integer.MAX_VALUE)
+     */
+    public MappedInputStream(Path path, long windowSize) throws IOException {
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("windowSize must be in ]0, 2 Go]");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureWindow()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (n <= 0) {
+            return 0;
+        }
+        long inWindow = window == null ? 0 : window.remaining();
+        if (n < inWindow) {
+            window.position(window.position() + (int) n);
+            return n;
+        }
+        // Au-delà de la fenêtre courante : elle est libérée, la suivante
+        // sera projetée à la nouvelle position
+        long position = nextStart - inWindow;
+        long target = Math.min(size, position + n);
+        release();
+        nextStart = target;
+        return target - position;
+    }
+
+    @Override
+    public int available() {
+        return window == null ? 0 : window.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        release();
+        channel.close();
+    }
+
+    /**
+     * Projette la fenêtre suivante si la courante est épuisée.
+     *
+     * @return false à la fin du fichier
+     */
+    private boolean ensureWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        release();
+        if (nextStart >= size) {
+            return false;
+        }
+        long length = Math.min(windowSize, size - nextStart);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, nextStart, length);
+        nextStart += length;
+        return true;
+    }
+
+    // La fenêtre n'est plus référencée après l'appel : aucun accès à une
+    // projection libérée n'est possible
+    private void release() {
+        MappedByteBuffer mapped = window;
+        window = null;
+        if (mapped != null && INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, mapped);
+            } catch (ReflectiveOperationException e) {
+                // Libération laissée au GC
+            }
+        }
+    }
+}
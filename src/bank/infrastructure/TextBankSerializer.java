@@ -3,78 +3,218 @@ import bank.domain.Account;
 import bank.domain.Bank;
 import bank.domain.BusinessAccount;
 import bank.domain.CreditAccount;
+import bank.domain.HistoryView;
+import bank.domain.Money;
 import bank.domain.SavingsAccount;
 import bank.domain.Transaction;
+import bank.domain.TransactionType;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * Sérialiseur simple au format texte ligne par ligne.
  * 
  * Format :
  * ACCOUNT;TYPE;ID;BALANCE[;PARAM1;PARAM2...]
+ * PERIOD;ACCOUNT_ID;PERIOD_ID (dernière période clôturée, si le compte en a une)
  * TRANSACTION;ACCOUNT_ID;TYPE;AMOUNT;BALANCE_AFTER;TIMESTAMP
  * 
  * Exemples :
- * ACCOUNT;SAVINGS;SA-1001;1000.0;0.05
- * ACCOUNT;CREDIT;CR-2001;-200.0;500.0
- * ACCOUNT;BUSINESS;BA-3001;5000.0;PREMIUM
- * TRANSACTION;SA-1001;DEPOSIT;200.0;1200.0;2025-12-19T10:30:00
- * TRANSACTION;CR-2001;WITHDRAW;50.0;-250.0;2025-12-19T11:00:00
+ * ACCOUNT;SAVINGS;SA-1001;1000.00;0.05
+ * ACCOUNT;CREDIT;CR-2001;-200.00;500.00
+ * ACCOUNT;BUSINESS;BA-3001;5000.00;PREMIUM
+ * TRANSACTION;SA-1001;DEPOSIT;200.00;1200.00;2025-12-19T10:30:00
+ * PERIOD;CR-2001;2025-12
+ * TRANSACTION;CR-2001;WITHDRAW;50.00;-250.00;2025-12-19T11:00:00
+ *
+ * Les montants sont écrits au centime près et relus sans passer par un
+ * double (Money.parse) ; les anciens fichiers (1000.0) restent lisibles.
+ * 
+ * Mode parallèle (constructeur avec ForkJoinPool) : chaque ligne ACCOUNT et
+ * ses lignes TRANSACTION forment un bloc indépendant. Les blocs sont encodés
+ * ou analysés par paquets sur le pool, puis assemblés dans l'ordre d'origine.
  */
 public class TextBankSerializer implements BankSerializer {
     
     private static final String SEPARATOR = ";";
     private static final String ACCOUNT_PREFIX = "ACCOUNT";
     private static final String TRANSACTION_PREFIX = "TRANSACTION";
+    private static final String PERIOD_PREFIX = "PERIOD";
+    
+    // Nombre de comptes par tâche en mode parallèle
+    private static final int ACCOUNTS_PER_TASK = 512;
+    
+    // null = mode séquentiel
+    private final ForkJoinPool pool;
+    
+    public TextBankSerializer() {
+        this(null);
+    }
+    
+    /**
+     * @param pool Pool utilisé pour (dé)sérialiser les blocs de comptes en parallèle
+     */
+    public TextBankSerializer(ForkJoinPool pool) {
+        this.pool = pool;
+    }
     
     @Override
     public String serialize(Bank bank) {
-        StringBuilder sb = new StringBuilder();
-        
+        StringWriter sw = new StringWriter();
+        try {
+            serialize(bank, sw);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // impossible avec un StringWriter
+        }
+        return sw.toString();
+    }
+    
+    @Override
+    public void serialize(Bank bank, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        serialize(bank, writer);
+        writer.flush();
+    }
+    
+    /**
+     * Écrit la banque ligne par ligne dans writer : la mémoire utilisée ne
+     * dépend pas de la taille de la banque.
+     */
+    public void serialize(Bank bank, Writer writer) throws IOException {
         // Sérialiser chaque compte
         List<Account> accounts = bank.getAllAccounts();
         
+        if (pool != null) {
+            serializeParallel(accounts, writer);
+            return;
+        }
         for (Account acc : accounts) {
-            // Ligne ACCOUNT
-            sb.append(serializeAccount(acc)).append("\n");
-            
-            // Lignes TRANSACTION pour ce compte
-            for (Transaction tx : acc.history()) {
-                sb.append(serializeTransaction(acc.getAccountNumber(), tx))
-                  .append("\n");
+            writeBlock(acc, writer);
+        }
+    }
+    
+    /**
+     * Encode les comptes par vagues : chaque vague est découpée en tâches
+     * fork-join qui remplissent leur propre tampon, puis les tampons sont
+     * écrits dans l'ordre. La mémoire reste bornée par la taille d'une vague.
+     */
+    private void serializeParallel(List<Account> accounts, Writer writer) throws IOException {
+        int wave = ACCOUNTS_PER_TASK * pool.getParallelism() * 2;
+        for (int start = 0; start < accounts.size(); start += wave) {
+            List<Account> slice = accounts.subList(start, Math.min(start + wave, accounts.size()));
+            for (CharSequence part : pool.invoke(new EncodeTask(slice))) {
+                writer.append(part);
             }
         }
+    }
+    
+    /**
+     * Ligne ACCOUNT, ligne PERIOD éventuelle, puis lignes TRANSACTION du
+     * compte. Solde, période et historique sont lus ensemble (Account.snapshot).
+     */
+    private void writeBlock(Account acc, Appendable out) throws IOException {
+        Account.Snapshot snapshot = acc.snapshot(0);
+        
+        // Ligne ACCOUNT
+        out.append(serializeAccount(acc, snapshot.getBalanceMinor())).append('\n');
+        if (snapshot.getClosedPeriod() != null) {
+            out.append(PERIOD_PREFIX).append(SEPARATOR).append(acc.getAccountNumber())
+               .append(SEPARATOR).append(snapshot.getClosedPeriod()).append('\n');
+        }
         
-        return sb.toString();
+        // Lignes TRANSACTION pour ce compte (vue sans copie de l'historique)
+        HistoryView history = snapshot.getHistory();
+        StringBuilder line = new StringBuilder(80);
+        for (int i = 0; i < history.size(); i++) {
+            line.setLength(0);
+            serializeTransaction(acc.getAccountNumber(), history, i, line);
+            out.append(line).append('\n');
+        }
+    }
+    
+    private final class EncodeTask extends RecursiveTask<List<CharSequence>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Account> accounts;
+        
+        EncodeTask(List<Account> accounts) {
+            this.accounts = accounts;
+        }
+        
+        @Override
+        protected List<CharSequence> compute() {
+            if (accounts.size() <= ACCOUNTS_PER_TASK) {
+                StringBuilder sb = new StringBuilder();
+                try {
+                    for (Account acc : accounts) {
+                        writeBlock(acc, sb);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // impossible avec un StringBuilder
+                }
+                List<CharSequence> result = new ArrayList<>();
+                result.add(sb);
+                return result;
+            }
+            int mid = accounts.size() / 2;
+            EncodeTask left = new EncodeTask(accounts.subList(0, mid));
+            EncodeTask right = new EncodeTask(accounts.subList(mid, accounts.size()));
+            left.fork();
+            List<CharSequence> rightParts = right.compute();
+            List<CharSequence> parts = left.join();
+            parts.addAll(rightParts);
+            return parts;
+        }
     }
     
     /**
      * Sérialise un compte selon son type.
      */
-    private String serializeAccount(Account acc) {
+    private String serializeAccount(Account acc, long balance) {
         StringBuilder sb = new StringBuilder();
         sb.append(ACCOUNT_PREFIX).append(SEPARATOR);
         
         if (acc instanceof SavingsAccount) {
             SavingsAccount sa = (SavingsAccount) acc;
             sb.append("SAVINGS").append(SEPARATOR)
-              .append(sa.getAccountNumber()).append(SEPARATOR)
-              .append(sa.getBalance()).append(SEPARATOR)
+              .append(sa.getAccountNumber()).append(SEPARATOR);
+            Money.appendTo(sb, balance).append(SEPARATOR)
               .append(sa.getInterestRate());
               
         } else if (acc instanceof CreditAccount) {
             CreditAccount ca = (CreditAccount) acc;
             sb.append("CREDIT").append(SEPARATOR)
-              .append(ca.getAccountNumber()).append(SEPARATOR)
-              .append(ca.getBalance()).append(SEPARATOR)
-              .append(ca.getCreditLimit());
+              .append(ca.getAccountNumber()).append(SEPARATOR);
+            Money.appendTo(sb, balance).append(SEPARATOR);
+            Money.appendTo(sb, ca.getCreditLimitMinor());
               
         } else if (acc instanceof BusinessAccount) {
             BusinessAccount ba = (BusinessAccount) acc;
             sb.append("BUSINESS").append(SEPARATOR)
-              .append(ba.getAccountNumber()).append(SEPARATOR)
-              .append(ba.getBalance()).append(SEPARATOR)
+              .append(ba.getAccountNumber()).append(SEPARATOR);
+            Money.appendTo(sb, balance).append(SEPARATOR)
               .append(ba.getTier());
         }
         
@@ -84,46 +224,159 @@ public class TextBankSerializer implements BankSerializer {
     /**
      * Sérialise une transaction.
      */
-    private String serializeTransaction(String accountId, Transaction tx) {
-        return TRANSACTION_PREFIX + SEPARATOR +
-               accountId + SEPARATOR +
-               tx.getType() + SEPARATOR +
-               tx.getAmount() + SEPARATOR +
-               tx.getBalanceAfter() + SEPARATOR +
-               tx.getTimestamp();
+    private void serializeTransaction(String accountId, HistoryView history, int i, StringBuilder sb) {
+        sb.append(TRANSACTION_PREFIX).append(SEPARATOR)
+          .append(accountId).append(SEPARATOR)
+          .append(history.typeAt(i)).append(SEPARATOR);
+        Money.appendTo(sb, history.amountMinorAt(i)).append(SEPARATOR);
+        Money.appendTo(sb, history.balanceAfterMinorAt(i)).append(SEPARATOR);
+        sb.append(history.timestampAt(i));
     }
     
     @Override
     public Bank deserialize(String data) {
+        if (data == null || data.trim().isEmpty()) {
+            return new Bank(); // Retourner une banque vide
+        }
+        try {
+            return deserialize(new StringReader(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // impossible avec un StringReader
+        }
+    }
+    
+    @Override
+    public Bank deserialize(InputStream in) throws IOException {
+        return deserialize(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Lit la banque ligne par ligne depuis reader, sans charger tout le contenu.
+     */
+    public Bank deserialize(Reader reader) throws IOException {
         Bank bank = new Bank();
+        BufferedReader lines = reader instanceof BufferedReader
+                ? (BufferedReader) reader
+                : new BufferedReader(reader);
         
-        if (data == null || data.trim().isEmpty()) {
-            return bank; // Retourner une banque vide
+        if (pool != null) {
+            deserializeParallel(lines, bank);
+            return bank;
+        }
+        
+        LineParser parser = new LineParser(bank::addAccount);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            parser.accept(line);
+        }
+        parser.finish();
+        
+        return bank;
+    }
+    
+    /**
+     * Découpe l'entrée aux lignes ACCOUNT en blocs de ACCOUNTS_PER_TASK comptes,
+     * analysés en parallèle. Les comptes sont ajoutés à la banque dans l'ordre
+     * du fichier. Le nombre de blocs en cours est borné pour limiter la mémoire.
+     */
+    private void deserializeParallel(BufferedReader lines, Bank bank) throws IOException {
+        int maxInFlight = pool.getParallelism() * 2;
+        ArrayDeque<ForkJoinTask<List<Account>>> inFlight = new ArrayDeque<>();
+        List<String> block = new ArrayList<>();
+        int accountsInBlock = 0;
+        
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.startsWith(ACCOUNT_PREFIX + SEPARATOR)) {
+                if (accountsInBlock == ACCOUNTS_PER_TASK) {
+                    inFlight.add(pool.submit(parseBlock(block)));
+                    block = new ArrayList<>();
+                    accountsInBlock = 0;
+                    if (inFlight.size() >= maxInFlight) {
+                        addAll(bank, inFlight.poll());
+                    }
+                }
+                accountsInBlock++;
+            }
+            block.add(line);
+        }
+        inFlight.add(pool.submit(parseBlock(block)));
+        while (!inFlight.isEmpty()) {
+            addAll(bank, inFlight.poll());
+        }
+    }
+    
+    private Callable<List<Account>> parseBlock(List<String> block) {
+        return () -> {
+            List<Account> accounts = new ArrayList<>();
+            LineParser parser = new LineParser(accounts::add);
+            for (String line : block) {
+                parser.accept(line);
+            }
+            parser.finish();
+            return accounts;
+        };
+    }
+    
+    // join() relance l'exception de la tâche (ex. PersistenceException)
+    private void addAll(Bank bank, ForkJoinTask<List<Account>> task) {
+        for (Account acc : task.join()) {
+            bank.addAccount(acc);
         }
+    }
+    
+    /**
+     * Analyse les lignes d'un fichier ou d'un bloc. Les comptes sont transmis
+     * à sink dès leur ligne ACCOUNT ; leurs transactions sont regroupées puis
+     * restaurées en une fois (Account.restoreHistory) à la fin du compte.
+     */
+    private final class LineParser {
+        private final Consumer<Account> sink;
+        private Account currentAccount;
+        private final List<Transaction> pending = new ArrayList<>();
         
-        String[] lines = data.split("\n");
-        Account currentAccount = null;
+        LineParser(Consumer<Account> sink) {
+            this.sink = sink;
+        }
         
-        for (String line : lines) {
+        void accept(String line) {
             line = line.trim();
-            if (line.isEmpty()) continue;
+            if (line.isEmpty()) return;
             
             String[] parts = line.split(SEPARATOR);
             
-            if (parts.length == 0) continue;
+            if (parts.length == 0) return;
             
             String prefix = parts[0];
             
             if (ACCOUNT_PREFIX.equals(prefix)) {
+                finish();
                 currentAccount = deserializeAccount(parts);
-                bank.addAccount(currentAccount);
+                sink.accept(currentAccount);
                 
             } else if (TRANSACTION_PREFIX.equals(prefix) && currentAccount != null) {
-                deserializeTransaction(parts, currentAccount);
+                pending.add(deserializeTransaction(parts, currentAccount));
+                
+            } else if (PERIOD_PREFIX.equals(prefix) && currentAccount != null) {
+                if (parts.length < 3 || !currentAccount.getAccountNumber().equals(parts[1])) {
+                    throw new PersistenceException("Format de période invalide");
+                }
+                currentAccount.setClosedPeriod(parts[2]);
             }
         }
         
-        return bank;
+        // Restaure l'historique du compte en cours
+        void finish() {
+            if (currentAccount != null && !pending.isEmpty()) {
+                try {
+                    currentAccount.restoreHistory(pending);
+                } catch (IllegalArgumentException e) {
+                    throw new PersistenceException("Historique invalide pour "
+                            + currentAccount.getAccountNumber() + " : " + e.getMessage(), e);
+                }
+                pending.clear();
+            }
+        }
     }
     
     /**
@@ -136,7 +389,7 @@ public class TextBankSerializer implements BankSerializer {
         
         String type = parts[1];
         String accountNumber = parts[2];
-        double balance = parseDouble(parts[3]);
+        long balance = parseAmount(parts[3]);
         
         Account account;
         
@@ -146,15 +399,15 @@ public class TextBankSerializer implements BankSerializer {
                     throw new PersistenceException("SavingsAccount incomplet");
                 }
                 double interestRate = parseDouble(parts[4]);
-                account = new SavingsAccount(accountNumber, balance, interestRate);
+                account = new SavingsAccount(accountNumber, 0, interestRate);
                 break;
                 
             case "CREDIT":
                 if (parts.length < 5) {
                     throw new PersistenceException("CreditAccount incomplet");
                 }
-                double creditLimit = parseDouble(parts[4]);
-                account = new CreditAccount(accountNumber, balance, creditLimit);
+                double creditLimit = Money.toMajor(parseAmount(parts[4]));
+                account = new CreditAccount(accountNumber, 0, creditLimit);
                 break;
                 
             case "BUSINESS":
@@ -162,31 +415,37 @@ public class TextBankSerializer implements BankSerializer {
                     throw new PersistenceException("BusinessAccount incomplet");
                 }
                 String tier = parts[4];
-                account = new BusinessAccount(accountNumber, balance, tier);
+                account = new BusinessAccount(accountNumber, 0, tier);
                 break;
                 
             default:
                 throw new PersistenceException("Type de compte inconnu : " + type);
         }
+        account.setBalanceMinor(balance);
         
         return account;
     }
     
     /**
-     * Désérialise une transaction et l'ajoute au compte.
-     * Note: On ne peut pas recréer exactement les transactions avec timestamp original,
-     * donc on les ignore pour cette version simple.
+     * Désérialise une transaction en conservant son horodatage et son solde.
      */
-    private void deserializeTransaction(String[] parts, Account account) {
-        // Pour l'instant, on ignore les transactions dans le chargement
-        // car Transaction est immutable avec timestamp = now()
-        // Une amélioration serait de modifier Transaction pour accepter un timestamp
-        
-        // Version simplifiée : on skip les transactions
-        // Dans une vraie application, il faudrait soit :
-        // 1. Modifier Transaction pour accepter un timestamp custom
-        // 2. Utiliser la réflexion pour forcer le timestamp
-        // 3. Ne sauvegarder que le solde final
+    private Transaction deserializeTransaction(String[] parts, Account account) {
+        if (parts.length < 6) {
+            throw new PersistenceException("Format de transaction invalide");
+        }
+        if (!account.getAccountNumber().equals(parts[1])) {
+            throw new PersistenceException(
+                "Transaction de " + parts[1] + " sous le compte " + account.getAccountNumber());
+        }
+        try {
+            return Transaction.ofMinor(
+                LocalDateTime.parse(parts[5]),
+                TransactionType.valueOf(parts[2]),
+                parseAmount(parts[3]),
+                parseAmount(parts[4]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new PersistenceException("Transaction invalide : " + String.join(SEPARATOR, parts), e);
+        }
     }
     
     /**
@@ -199,4 +458,15 @@ public class TextBankSerializer implements BankSerializer {
             throw new PersistenceException("Format numérique invalide : " + value, e);
         }
     }
+    
+    /**
+     * Parse un montant en centimes.
+     */
+    private long parseAmount(String value) {
+        try {
+            return Money.parse(value);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new PersistenceException("Montant invalide : " + value, e);
+        }
+    }
 }
\ No newline at end of file
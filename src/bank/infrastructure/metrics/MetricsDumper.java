@@ -0,0 +1,71 @@
+package bank.infrastructure.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écrit périodiquement le tableau des mesures dans un fichier texte,
+ * remplacé de façon atomique à chaque fois (jamais lu à moitié écrit).
+ */
+public class MetricsDumper implements AutoCloseable {
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param registry Mesures à écrire
+     * @param file Fichier de sortie
+     * @param periodMillis Intervalle entre deux écritures
+     */
+    public MetricsDumper(MetricsRegistry registry, Path file, long periodMillis) {
+        this.registry = registry;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bank-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::dumpQuietly, periodMillis, periodMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Écrit immédiatement le tableau des mesures.
+     */
+    public void dump() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        String text = "# " + LocalDateTime.now() + System.lineSeparator() + registry.dump();
+        Files.writeString(tmp, text, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Arrête les écritures périodiques après un dernier dump.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dumpQuietly();
+    }
+
+    private void dumpQuietly() {
+        try {
+            dump();
+        } catch (IOException e) {
+            System.err.println("Erreur d'écriture des mesures dans " + file + ": " + e.getMessage());
+        }
+    }
+}
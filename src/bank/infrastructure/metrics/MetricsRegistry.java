@@ -0,0 +1,100 @@
+package bank.infrastructure.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registre des mesures par opération.
+ *
+ * Les appelants gardent l'OperationMetrics dans un champ static final : la
+ * recherche par nom n'a lieu qu'une fois. Le registre global est partagé par
+ * toute l'application (comme le Logger).
+ *
+ * enableJmx() publie chaque opération, présente ou future, comme MXBean
+ * bank:type=Operation,name=... dans le serveur JMX de la plateforme.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private volatile MBeanServer jmxServer;
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Mesures de l'opération name, créées au premier appel.
+     */
+    public OperationMetrics operation(String name) {
+        OperationMetrics metrics = operations.get(name);
+        if (metrics != null) {
+            return metrics;
+        }
+        synchronized (this) {
+            metrics = operations.get(name);
+            if (metrics == null) {
+                metrics = new OperationMetrics(name);
+                operations.put(name, metrics);
+                if (jmxServer != null) {
+                    register(jmxServer, metrics);
+                }
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Publie les opérations dans le serveur JMX de la plateforme.
+     */
+    public synchronized void enableJmx() {
+        if (jmxServer != null) {
+            return;
+        }
+        jmxServer = ManagementFactory.getPlatformMBeanServer();
+        for (OperationMetrics metrics : operations.values()) {
+            register(jmxServer, metrics);
+        }
+    }
+
+    public static ObjectName objectName(String operation) {
+        try {
+            return new ObjectName("bank:type=Operation,name=" + ObjectName.quote(operation));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Nom d'opération invalide : " + operation, e);
+        }
+    }
+
+    /**
+     * Tableau texte de toutes les opérations, triées par nom.
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-24s %10s %8s %10s %10s %10s %10s  %s%n",
+                "operation", "count", "failed", "p50(us)", "p99(us)", "p999(us)", "max(us)", "failures"));
+        for (OperationMetrics m : new TreeMap<>(operations).values()) {
+            sb.append(String.format(Locale.US, "%-24s %10d %8d %10.1f %10.1f %10.1f %10.1f  %s%n",
+                    m.getName(), m.getCount(), m.getFailureCount(), m.getP50Micros(),
+                    m.getP99Micros(), m.getP999Micros(), m.getMaxMicros(), m.getFailuresByReason()));
+        }
+        return sb.toString();
+    }
+
+    private static void register(MBeanServer server, OperationMetrics metrics) {
+        try {
+            ObjectName name = objectName(metrics.getName());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Enregistrement JMX impossible : " + metrics.getName(), e);
+        }
+    }
+}
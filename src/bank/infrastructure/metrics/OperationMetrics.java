@@ -0,0 +1,97 @@
+package bank.infrastructure.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une opération : latences, nombre d'appels et d'échecs par cause
+ * (nom simple de la classe d'exception).
+ *
+ * Usage :
+ * <pre>
+ * long start = System.nanoTime();
+ * try {
+ *     ...
+ *     metrics.recordSuccess(start);
+ * } catch (RuntimeException e) {
+ *     metrics.recordFailure(start, e);
+ *     throw e;
+ * }
+ * </pre>
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+    private final Map<Class<?>, LongAdder> failuresByReason = new ConcurrentHashMap<>();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param startNanos Valeur de System.nanoTime() au début de l'opération
+     */
+    public void recordSuccess(long startNanos) {
+        latencies.record(System.nanoTime() - startNanos);
+    }
+
+    public void recordFailure(long startNanos, Throwable reason) {
+        latencies.record(System.nanoTime() - startNanos);
+        failures.increment();
+        failuresByReason.computeIfAbsent(reason.getClass(), c -> new LongAdder()).increment();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    @Override
+    public Map<String, Long> getFailuresByReason() {
+        Map<String, Long> result = new TreeMap<>();
+        failuresByReason.forEach((type, count) -> result.merge(type.getSimpleName(), count.sum(), Long::sum));
+        return result;
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latencies.getMeanNanos() / 1000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencies.getPercentileNanos(50) / 1000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencies.getPercentileNanos(99) / 1000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencies.getPercentileNanos(99.9) / 1000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latencies.getMaxNanos() / 1000.0;
+    }
+}
@@ -0,0 +1,26 @@
+package bank.infrastructure.metrics;
+
+import java.util.Map;
+
+/**
+ * Vue JMX d'une opération (bank:type=Operation,name=...).
+ * Latences en microsecondes.
+ */
+public interface OperationMetricsMXBean {
+
+    long getCount();
+
+    long getFailureCount();
+
+    Map<String, Long> getFailuresByReason();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+}
@@ -1,10 +1,18 @@
 package bank;
 import bank.domain.Account;
+import bank.domain.HistoryView;
 import bank.domain.SavingsAccount;
+import bank.domain.Transaction;
 import bank.domain.TransactionType;
 import bank.errors.BusinessRuleViolation;
 
 import org.junit.jupiter.api.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class AccountTest {
@@ -29,5 +37,145 @@ class AccountTest {
         assertEquals("montant invalide", exception.getMessage());
     }
 
+    @Test
+    void testHistoryAcrossStorageChunks() {
+        Account acc = new SavingsAccount("SA-1002", 0.0, 0.05);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0, 0, 123_456_789);
+        List<Transaction> restored = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            TransactionType type = i % 3 == 0 ? TransactionType.FEE : TransactionType.DEPOSIT;
+            restored.add(new Transaction(start.plusSeconds(i), type, i, i * 2.0));
+        }
+        acc.restoreHistory(restored);
+
+        List<Transaction> history = acc.history();
+        assertEquals(2500, history.size());
+        Transaction last = history.get(2499);
+        assertEquals(start.plusSeconds(2499), last.getTimestamp());
+        assertEquals(2499.0, last.getAmount());
+        assertEquals(4998.0, last.getBalanceAfter());
+        assertEquals(834, acc.findByType(TransactionType.FEE).size());
+        assertEquals(11, acc.findByDateRange(start.plusSeconds(1024), start.plusSeconds(1034)).size());
+    }
+
+    @Test
+    void testDateRangeAndBalanceAsOf() {
+        Account acc = new SavingsAccount("SA-1003", 100.0, 0.05);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 12, 0);
+        List<Transaction> restored = new ArrayList<>();
+        restored.add(new Transaction(start, TransactionType.DEPOSIT, 50.0, 150.0));
+        restored.add(new Transaction(start.plusDays(1), TransactionType.WITHDRAW, 30.0, 120.0));
+        restored.add(new Transaction(start.plusDays(1), TransactionType.FEE, 1.0, 119.0));
+        restored.add(new Transaction(start.plusDays(3), TransactionType.DEPOSIT, 10.0, 129.0));
+        acc.restoreHistory(restored);
+
+        // Bornes incluses, y compris les horodatages égaux
+        assertEquals(2, acc.findByDateRange(start.plusDays(1), start.plusDays(2)).size());
+        assertEquals(4, acc.findByDateRange(start, start.plusDays(3)).size());
+        assertTrue(acc.findByDateRange(start.plusDays(2), start.plusDays(1)).isEmpty());
+
+        assertEquals(100.0, acc.balanceAsOf(start.minusSeconds(1)), 0.001); // solde d'ouverture
+        assertEquals(150.0, acc.balanceAsOf(start), 0.001);
+        assertEquals(119.0, acc.balanceAsOf(start.plusDays(2)), 0.001);
+        assertEquals(129.0, acc.balanceAsOf(start.plusYears(1)), 0.001);
+    }
+
+    @Test
+    void testHistoryStaysTimeOrdered() {
+        Account acc = new SavingsAccount("SA-1004", 0.0, 0.05);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Transaction> restored = new ArrayList<>();
+        restored.add(new Transaction(start, TransactionType.DEPOSIT, 10.0, 10.0));
+        // Horodatage antérieur dans un historique sauvegardé : refusé, rien n'est restauré
+        restored.add(new Transaction(start.minusHours(1), TransactionType.DEPOSIT, 5.0, 15.0));
+        assertThrows(IllegalArgumentException.class, () -> acc.restoreHistory(restored));
+        assertEquals(0, acc.history().size());
+
+        restored.remove(1);
+        acc.restoreHistory(restored);
+        acc.setBalanceMinor(1000);
+        // Nouvelle transaction datée avant la précédente : ramenée au précédent
+        acc.deposit(5.0);
+
+        List<Transaction> history = acc.getSortedHistory();
+        assertEquals(start, history.get(1).getTimestamp());
+        assertEquals(15.0, history.get(1).getBalanceAfter(), 0.001);
+        assertEquals(15.0, acc.balanceAsOf(start), 0.001);
+    }
+
+    @Test
+    void testLiveTimestampsAreUtc() {
+        Account acc = new SavingsAccount("SA-1005", 0.0, 0.0);
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        acc.deposit(1.0);
+        LocalDateTime after = LocalDateTime.now(ZoneOffset.UTC);
+
+        LocalDateTime stamped = acc.history().get(0).getTimestamp();
+        assertFalse(stamped.isBefore(before));
+        assertFalse(stamped.isAfter(after));
+    }
+
+    @Test
+    void testPerTypeTotals() {
+        SavingsAccount acc = new SavingsAccount("SA-1005", 1000.0, 0.1);
+        acc.setFeePolicy(new bank.domain.fees.FixedFeePolicy(1.5));
+        acc.deposit(200.0);
+        acc.withdraw(100.0);
+        acc.withdraw(50.0);
+        acc.applyInterest();
+
+        assertEquals(200.0, acc.totalOf(TransactionType.DEPOSIT), 0.001);
+        assertEquals(150.0, acc.totalOf(TransactionType.WITHDRAW), 0.001);
+        assertEquals(3.0, acc.getTotalFeesPaid(), 0.001);
+        assertEquals(104.7, acc.getTotalInterestEarned(), 0.001);
+        assertEquals(2, acc.countOf(TransactionType.FEE));
+        assertEquals(0, acc.countOf(TransactionType.TRANSFER_IN));
+
+        List<Transaction> withdrawals = acc.findByType(TransactionType.WITHDRAW);
+        assertEquals(2, withdrawals.size());
+        assertEquals(50.0, withdrawals.get(1).getAmount(), 0.001);
+    }
 
+    @Test
+    void testHistoryPagesAndViews() {
+        Account acc = new SavingsAccount("SA-1006", 0.0, 0.05);
+        for (int i = 1; i <= 25; i++) {
+            acc.deposit(1.0);
+        }
+        List<Transaction> before = acc.history();
+
+        HistoryView page = acc.history(20, 10);
+        assertEquals(5, page.size());
+        assertEquals(21.0, page.get(0).getBalanceAfter(), 0.001);
+        assertEquals(25, page.getFromIndex() + page.size()); // curseur de la page suivante
+        assertTrue(acc.history(30, 10).isEmpty());
+
+        // La vue est figée et en lecture seule
+        acc.deposit(1.0);
+        assertEquals(25, before.size());
+        assertThrows(UnsupportedOperationException.class, () -> before.add(before.get(0)));
+
+        assertEquals(2600, acc.history().balancesMinor().max().getAsLong());
+        assertEquals(26.0, acc.historyStream().parallel().mapToDouble(Transaction::getAmount).sum(), 0.001);
+        assertEquals(3, acc.history().subList(10, 13).size());
+    }
+
+    @Test
+    void testViewsAreSafeDuringConcurrentAppends() throws InterruptedException {
+        Account acc = new SavingsAccount("SA-1007", 0.0, 0.05);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 5000; i++) {
+                acc.deposit(0.01);
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            HistoryView view = acc.history();
+            for (int i = 0; i < view.size(); i++) {
+                assertEquals(i + 1, view.balanceAfterMinorAt(i));
+            }
+        }
+        writer.join();
+        assertEquals(5000, acc.history().size());
+    }
 }
@@ -81,4 +81,18 @@ public class BankTransferTest {
         assertEquals(200.0, from.getBalance(), 0.001);
         assertTrue(from.findByType(TransactionType.WITHDRAW).isEmpty());
     }
+
+    @Test
+    void testDuplicateAccountIsRejected() {
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-4", 100.0, 0.01));
+
+        BusinessRuleViolation ex = assertThrows(BusinessRuleViolation.class, () -> {
+            bank.addAccount(new CreditAccount("SA-4", 50.0, 100.0));
+        });
+
+        assertEquals("Compte déjà existant: SA-4", ex.getMessage());
+        assertEquals(1, bank.getAllAccounts().size());
+        assertTrue(bank.getAccount("SA-4") instanceof SavingsAccount);
+    }
 }
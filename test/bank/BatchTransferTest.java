@@ -0,0 +1,102 @@
+package bank;
+
+import bank.domain.Bank;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.domain.TransferOutcome;
+import bank.domain.TransactionType;
+import bank.domain.TransferRequest;
+import bank.errors.BusinessRuleViolation;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchTransferTest {
+
+    @Test
+    void testBatchReportsEachOutcomeWithoutStopping() {
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-1", 100.0, 0.01));
+        bank.addAccount(new CreditAccount("CA-1", 0.0, 50.0));
+
+        List<TransferOutcome> outcomes = bank.transferBatch(List.of(
+            new TransferRequest("SA-1", "CA-1", 30.0),
+            new TransferRequest("SA-1", "CA-1", 500.0),
+            new TransferRequest("SA-1", "UNKNOWN", 10.0),
+            new TransferRequest("SA-1", "SA-1", 10.0),
+            new TransferRequest("CA-1", "SA-1", 70.0)
+        ));
+
+        assertEquals(List.of(
+            TransferOutcome.OK,
+            TransferOutcome.INSUFFICIENT_FUNDS,
+            TransferOutcome.UNKNOWN_ACCOUNT,
+            TransferOutcome.INVALID_REQUEST,
+            TransferOutcome.OK), outcomes);
+
+        assertEquals(140.0, bank.getAccount("SA-1").getBalance(), 0.001);
+        assertEquals(-40.0, bank.getAccount("CA-1").getBalance(), 0.001);
+    }
+
+    @Test
+    void testLargeBatchSpanningSeveralGroups() {
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-A", 1000.0, 0.0));
+        bank.addAccount(new SavingsAccount("SA-B", 0.0, 0.0));
+
+        List<TransferRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(new TransferRequest("SA-A", "SA-B", 1.0));
+        }
+        // Le 1001e échoue : SA-A est vide
+        requests.add(new TransferRequest("SA-A", "SA-B", 1.0));
+
+        List<TransferOutcome> outcomes = bank.transferBatch(requests);
+
+        assertEquals(1001, outcomes.size());
+        assertEquals(TransferOutcome.INSUFFICIENT_FUNDS, outcomes.get(1000));
+        assertEquals(0.0, bank.getAccount("SA-A").getBalance(), 0.001);
+        assertEquals(1000.0, bank.getAccount("SA-B").getBalance(), 0.001);
+    }
+
+    @Test
+    void testObserverFailuresAreRolledBackAndReported() {
+        Bank bank = new Bank();
+        SavingsAccount strict = new SavingsAccount("SA-1", 100.0, 0.0);
+        SavingsAccount failing = new SavingsAccount("SA-2", 100.0, 0.0);
+        SavingsAccount other = new SavingsAccount("SA-3", 100.0, 0.0);
+        bank.addAccount(strict);
+        bank.addAccount(failing);
+        bank.addAccount(other);
+        // Règle refusée par un observateur, après validation du retrait
+        strict.addObserver((acc, tx) -> {
+            if (tx.getType() == TransactionType.WITHDRAW) {
+                throw new BusinessRuleViolation("refusé par l'observateur");
+            }
+        });
+        // Échec quelconque après validation du dépôt
+        failing.addObserver((acc, tx) -> {
+            if (tx.getType() == TransactionType.DEPOSIT) {
+                throw new IllegalStateException("observateur en échec");
+            }
+        });
+
+        List<TransferOutcome> outcomes = bank.transferBatch(List.of(
+            new TransferRequest("SA-1", "SA-3", 10.0),
+            new TransferRequest("SA-3", "SA-2", 20.0),
+            new TransferRequest("SA-2", "SA-3", 30.0)
+        ));
+
+        assertEquals(List.of(
+            TransferOutcome.FAILED,
+            TransferOutcome.FAILED,
+            TransferOutcome.OK), outcomes);
+        assertEquals(100.0, strict.getBalance(), 0.001);
+        assertEquals(70.0, failing.getBalance(), 0.001);
+        assertEquals(130.0, other.getBalance(), 0.001);
+    }
+}
@@ -0,0 +1,150 @@
+package bank;
+
+import bank.application.SnapshotConverter;
+import bank.domain.Bank;
+import bank.domain.BusinessAccount;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.infrastructure.BinaryBankSerializer;
+import bank.infrastructure.FileBankRepository;
+import bank.infrastructure.PersistenceException;
+import bank.infrastructure.TextBankSerializer;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinarySerializerTest {
+
+    @TempDir
+    Path dir;
+
+    private Bank sampleBank() {
+        Bank bank = new Bank();
+        SavingsAccount sa = new SavingsAccount("SA-1001", 1000.0, 0.05);
+        CreditAccount ca = new CreditAccount("CR-2001", -200.0, 500.0);
+        BusinessAccount ba = new BusinessAccount("BA-3001", 5000.0, 1000.0, 0.02, "PREMIUM");
+        bank.addAccount(sa);
+        bank.addAccount(ca);
+        bank.addAccount(ba);
+        sa.deposit(12.34);
+        ca.withdraw(0.5);
+        ca.closePeriod("2025-12", RoundingMode.HALF_EVEN, null);
+        return bank;
+    }
+
+    @Test
+    void testBinaryRoundTripThroughFileRepository() {
+        FileBankRepository repository =
+            new FileBankRepository(dir.resolve("bank.bin"), new BinaryBankSerializer());
+        repository.save(sampleBank());
+
+        Bank reloaded = repository.load();
+        assertEquals(3, reloaded.getAllAccounts().size());
+        assertEquals(1012.34, reloaded.getAccount("SA-1001").getBalance(), 0.001);
+        assertEquals(-200.5, reloaded.getAccount("CR-2001").getBalance(), 0.001);
+        assertEquals(0.05, ((SavingsAccount) reloaded.getAccount("SA-1001")).getInterestRate());
+        assertEquals(500.0, ((CreditAccount) reloaded.getAccount("CR-2001")).getCreditLimit(), 0.001);
+        assertEquals("2025-12", reloaded.getAccount("CR-2001").getClosedPeriod());
+        assertNull(reloaded.getAccount("SA-1001").getClosedPeriod());
+
+        BusinessAccount ba = (BusinessAccount) reloaded.getAccount("BA-3001");
+        assertEquals("PREMIUM", ba.getTier());
+        assertEquals(1000.0, ba.getCreditLimit(), 0.001);
+        assertEquals(0.02, ba.getInterestRate());
+    }
+
+    @Test
+    void testBinaryIsSmallerThanText() {
+        Bank bank = new Bank();
+        for (int i = 0; i < 500; i++) {
+            SavingsAccount acc = new SavingsAccount("SA-" + i, 1000.0 + i, 0.01);
+            bank.addAccount(acc);
+            for (int j = 0; j < 5; j++) {
+                acc.deposit(10.25);
+            }
+        }
+        int textSize = new TextBankSerializer().serialize(bank).length();
+        // Base64 : 4 caractères pour 3 octets
+        int binarySize = new BinaryBankSerializer().serialize(bank).length() * 3 / 4;
+
+        assertTrue(binarySize * 3 < textSize,
+            "binaire=" + binarySize + " octets, texte=" + textSize + " octets");
+    }
+
+    @Test
+    void testCorruptedBlockIsDetected() throws Exception {
+        Path file = dir.resolve("bank.bin");
+        FileBankRepository repository = new FileBankRepository(file, new BinaryBankSerializer());
+        repository.save(sampleBank());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[12] ^= 0x01;
+        Files.write(file, bytes);
+
+        assertThrows(PersistenceException.class, repository::load);
+    }
+
+    @Test
+    void testCorruptedLengthPrefixIsDetected() throws Exception {
+        Path file = dir.resolve("bank.bin");
+        FileBankRepository repository = new FileBankRepository(file, new BinaryBankSerializer());
+        repository.save(sampleBank());
+        byte[] original = Files.readAllBytes(file);
+
+        // Longueur du premier bloc (varint après "BNKB" + version) : négative
+        // une fois tronquée en int, puis ~1 Go sur un fichier de quelques octets
+        byte[][] prefixes = {
+            {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F},
+            {(byte) 0x80, (byte) 0x94, (byte) 0xEB, (byte) 0xDC, 0x03},
+            {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF}
+        };
+        for (byte[] prefix : prefixes) {
+            byte[] bytes = original.clone();
+            System.arraycopy(prefix, 0, bytes, 5, prefix.length);
+            Files.write(file, bytes);
+            assertThrows(PersistenceException.class, repository::load);
+        }
+
+        // Longueur de l'identifiant du compte (après le type) au-delà du bloc,
+        // CRC recalculé : c'est la lecture de la chaîne qui doit échouer
+        byte[] bytes = original.clone();
+        int length = 0;
+        int pos = 5;
+        for (int shift = 0; ; shift += 7) {
+            int b = bytes[pos++];
+            length |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        bytes[pos + 1] = 0x7F;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, pos, length);
+        ByteBuffer.wrap(bytes, pos + length, 4).putInt((int) crc.getValue());
+        Files.write(file, bytes);
+        PersistenceException e = assertThrows(PersistenceException.class, repository::load);
+        assertTrue(e.getMessage().startsWith("Bloc corrompu (longueur"), e.getMessage());
+    }
+
+    @Test
+    void testConverterTextToBinaryAndBack() {
+        Path text = dir.resolve("bank.txt");
+        new FileBankRepository(text, new TextBankSerializer()).save(sampleBank());
+
+        SnapshotConverter.convert(text, new TextBankSerializer(),
+            dir.resolve("bank.bin"), new BinaryBankSerializer());
+        Bank back = SnapshotConverter.convert(dir.resolve("bank.bin"), new BinaryBankSerializer(),
+            dir.resolve("back.txt"), new TextBankSerializer());
+
+        assertEquals(1012.34, back.getAccount("SA-1001").getBalance(), 0.001);
+        assertEquals("PREMIUM", ((BusinessAccount) back.getAccount("BA-3001")).getTier());
+    }
+}
@@ -0,0 +1,137 @@
+package bank;
+
+import bank.application.CachedBankService;
+import bank.domain.Bank;
+import bank.domain.SavingsAccount;
+import bank.infrastructure.BankRepository;
+import bank.infrastructure.FileBankRepository;
+import bank.infrastructure.TextBankSerializer;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachedBankServiceTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Repository fichier qui compte les sauvegardes.
+     */
+    private static class CountingRepository extends FileBankRepository {
+        final AtomicInteger saves = new AtomicInteger();
+
+        CountingRepository(Path path) {
+            super(path, new TextBankSerializer());
+        }
+
+        @Override
+        public void save(Bank bank) {
+            saves.incrementAndGet();
+            super.save(bank);
+        }
+    }
+
+    /**
+     * Repository dont chaque sauvegarde est lente.
+     */
+    private static class SlowRepository extends CountingRepository {
+        SlowRepository(Path path) {
+            super(path);
+        }
+
+        @Override
+        public void save(Bank bank) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.save(bank);
+        }
+    }
+
+    private Bank sampleBank() {
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-1", 1000.0, 0.0));
+        bank.addAccount(new SavingsAccount("SA-2", 0.0, 0.0));
+        return bank;
+    }
+
+    @Test
+    void testTransfersAreFlushedInOneSave() {
+        CountingRepository repository = new CountingRepository(dir.resolve("bank.txt"));
+        try (CachedBankService service = new CachedBankService(repository, 60_000, 1_000)) {
+            service.saveBank(sampleBank());
+            for (int i = 0; i < 100; i++) {
+                service.transfer("SA-1", "SA-2", 1.0);
+            }
+            // Rien n'est écrit avant le flush
+            assertEquals(1, repository.saves.get());
+            assertEquals(2, service.getDirtyAccountCount());
+
+            service.flush();
+            assertEquals(2, repository.saves.get());
+            assertEquals(0, service.getDirtyAccountCount());
+        }
+
+        BankRepository reader = new FileBankRepository(dir.resolve("bank.txt"), new TextBankSerializer());
+        assertEquals(900.0, reader.load().getAccount("SA-1").getBalance(), 0.001);
+        assertEquals(100.0, reader.load().getAccount("SA-2").getBalance(), 0.001);
+    }
+
+    @Test
+    void testResidentBankIsLoadedOnce() {
+        CountingRepository repository = new CountingRepository(dir.resolve("bank.txt"));
+        repository.save(sampleBank());
+
+        try (CachedBankService service = new CachedBankService(repository, 60_000, 1_000)) {
+            Bank first = service.loadBank();
+            service.transfer("SA-1", "SA-2", 10.0);
+            assertSame(first, service.loadBank());
+            assertEquals(990.0, service.loadBank().getAccount("SA-1").getBalance(), 0.001);
+        }
+    }
+
+    @Test
+    void testSlowRepositoryThrottlesWriters() {
+        SlowRepository repository = new SlowRepository(dir.resolve("bank.txt"));
+        try (CachedBankService service = new CachedBankService(repository, 60_000, 4)) {
+            Bank bank = new Bank();
+            for (int i = 0; i < 40; i++) {
+                bank.addAccount(new SavingsAccount("SA-" + i, 100.0, 0.0));
+            }
+            service.saveBank(bank);
+
+            for (int i = 0; i < 40; i += 2) {
+                service.transfer("SA-" + i, "SA-" + (i + 1), 1.0);
+                assertTrue(service.getDirtyAccountCount() <= 8);
+            }
+        }
+
+        BankRepository reader = new FileBankRepository(dir.resolve("bank.txt"), new TextBankSerializer());
+        assertEquals(99.0, reader.load().getAccount("SA-38").getBalance(), 0.001);
+        assertEquals(101.0, reader.load().getAccount("SA-39").getBalance(), 0.001);
+    }
+
+    @Test
+    void testPeriodicFlushBoundsStaleness() throws Exception {
+        CountingRepository repository = new CountingRepository(dir.resolve("bank.txt"));
+        try (CachedBankService service = new CachedBankService(repository, 20, 1_000)) {
+            service.saveBank(sampleBank());
+            service.transfer("SA-1", "SA-2", 5.0);
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (service.getDirtyAccountCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, service.getDirtyAccountCount());
+            assertEquals(2, repository.saves.get());
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package bank;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.ConcurrencyMode;
+import bank.domain.CreditAccount;
+import bank.domain.HistoryView;
+import bank.domain.SavingsAccount;
+import bank.domain.Transaction;
+import bank.domain.TransactionType;
+import bank.domain.fees.FixedFeePolicy;
+import bank.domain.observer.AccountObserver;
+import bank.errors.BusinessRuleViolation;
+import bank.errors.TransferException;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTransferTest {
+
+    @Test
+    void testCrossedTransfersKeepTotalAndDoNotDeadlock() throws Exception {
+        Bank bank = new Bank();
+        int accountCount = 4;
+        for (int i = 0; i < accountCount; i++) {
+            bank.addAccount(new SavingsAccount("SA-" + i, 10_000.0, 0.0));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 250; i++) {
+                    // Transferts croisés A->B et B->A pour provoquer la contention
+                    int from = (seed + i) % accountCount;
+                    int to = (seed + i + 1 + (seed % 2) * 2) % accountCount;
+                    bank.transfer("SA-" + from, "SA-" + to, 1.0);
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        double total = 0.0;
+        int entries = 0;
+        for (Account acc : bank.getAllAccounts()) {
+            total += acc.getBalance();
+            entries += acc.history().size();
+        }
+        assertEquals(accountCount * 10_000.0, total, 0.001);
+        // Chaque transfert produit un WITHDRAW et un DEPOSIT
+        assertEquals(2 * 8 * 250, entries);
+    }
+
+    @Test
+    void testOptimisticUpdatesAreNotLostAndHistoryStaysOrdered() throws Exception {
+        CreditAccount acc = new CreditAccount("CR-1", 0.0, 100_000.0);
+        acc.setFeePolicy(new FixedFeePolicy(0.10));
+        acc.setConcurrencyMode(ConcurrencyMode.OPTIMISTIC);
+
+        runConcurrently(8, t -> {
+            for (int i = 0; i < 1000; i++) {
+                acc.deposit(1.0);
+                acc.withdraw(0.5);
+            }
+        });
+
+        // 8000 x (1.00 - 0.50 - 0.10 de frais)
+        assertEquals(3_200_00, acc.getBalanceMinor());
+        assertEquals(16_000, acc.getVersion());
+        HistoryView history = acc.history();
+        assertEquals(24_000, history.size());
+        // Chaque ligne enchaîne sur la précédente : historique publié dans l'ordre des versions
+        long balance = 0;
+        for (int i = 0; i < history.size(); i++) {
+            TransactionType type = history.typeAt(i);
+            balance += type == TransactionType.DEPOSIT ? history.amountMinorAt(i) : -history.amountMinorAt(i);
+            assertEquals(balance, history.balanceAfterMinorAt(i), "entrée " + i);
+        }
+    }
+
+    @Test
+    void testOptimisticWithdrawRevalidatesRulesOnConflict() throws Exception {
+        SavingsAccount acc = new SavingsAccount("SA-1", 100.0, 0.0);
+        acc.setConcurrencyMode(ConcurrencyMode.OPTIMISTIC);
+        AtomicInteger succeeded = new AtomicInteger();
+
+        runConcurrently(8, t -> {
+            for (int i = 0; i < 50; i++) {
+                try {
+                    acc.withdraw(1.0);
+                    succeeded.incrementAndGet();
+                } catch (BusinessRuleViolation e) {
+                    // solde insuffisant
+                }
+            }
+        });
+
+        assertEquals(100, succeeded.get());
+        assertEquals(0, acc.getBalanceMinor());
+    }
+
+    @Test
+    void testTransferCompensationKeepsConcurrentDeposits() throws Exception {
+        Bank bank = new Bank();
+        SavingsAccount from = new SavingsAccount("SA-1", 10_000.0, 0.0);
+        SavingsAccount to = new SavingsAccount("SA-2", 0.0, 0.0);
+        from.setConcurrencyMode(ConcurrencyMode.OPTIMISTIC);
+        to.setConcurrencyMode(ConcurrencyMode.OPTIMISTIC);
+        bank.addAccount(from);
+        bank.addAccount(to);
+        // Fait échouer, après validation, le dépôt des transferts de 7.77
+        to.addObserver(new AccountObserver() {
+            @Override
+            public void onTransaction(Account a, Transaction tx) {
+                if (tx.getAmountMinor() == 777) {
+                    throw new IllegalStateException("observateur en échec");
+                }
+            }
+        });
+        AtomicInteger failedTransfers = new AtomicInteger();
+
+        runConcurrently(4, t -> {
+            for (int i = 0; i < 500; i++) {
+                if (t < 2) {
+                    try {
+                        bank.transfer("SA-1", "SA-2", i % 2 == 0 ? 7.77 : 1.0);
+                    } catch (TransferException e) {
+                        failedTransfers.incrementAndGet();
+                    }
+                } else {
+                    // Dépôts sans verrou pendant les transferts et leurs compensations
+                    from.deposit(1.0);
+                    to.deposit(1.0);
+                }
+            }
+        });
+
+        // Un dépôt de 7.77 notifié par un thread de dépôt (mode OPTIMISTIC)
+        // n'échoue pas dans le transfert, qui est alors validé
+        int failed = failedTransfers.get();
+        assertTrue(failed > 0);
+        int completed777 = 500 - failed;
+        assertEquals(10_000_00 - 500 * 100 - completed777 * 777 + 1000 * 100, from.getBalanceMinor());
+        assertEquals(500 * 100 + completed777 * 777 + 1000 * 100, to.getBalanceMinor());
+    }
+
+    @Test
+    void testObserverRuleViolationAfterWithdrawIsCompensated() {
+        Bank bank = new Bank();
+        SavingsAccount from = new SavingsAccount("SA-1", 100.0, 0.0);
+        SavingsAccount to = new SavingsAccount("SA-2", 0.0, 0.0);
+        from.setFeePolicy(new FixedFeePolicy(1.0));
+        bank.addAccount(from);
+        bank.addAccount(to);
+        from.addObserver((acc, tx) -> {
+            throw new BusinessRuleViolation("refusé par l'observateur");
+        });
+
+        TransferException e = assertThrows(TransferException.class,
+                () -> bank.transfer("SA-1", "SA-2", 10.0));
+        assertTrue(e.getCause() instanceof BusinessRuleViolation);
+        assertEquals(100_00, from.getBalanceMinor());
+        assertEquals(0, to.getBalanceMinor());
+    }
+
+    @Test
+    void testReentrantObserverDoesNotHang() {
+        for (ConcurrencyMode mode : ConcurrencyMode.values()) {
+            SavingsAccount acc = new SavingsAccount("SA-1", 100.0, 0.0);
+            acc.setConcurrencyMode(mode);
+            List<TransactionType> seen = new ArrayList<>();
+            acc.addObserver((a, tx) -> {
+                seen.add(tx.getType());
+                if (tx.getType() == TransactionType.WITHDRAW) {
+                    a.deposit(1.0);
+                }
+            });
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> acc.withdraw(10.0));
+            assertEquals(91_00, acc.getBalanceMinor());
+            assertEquals(List.of(TransactionType.WITHDRAW, TransactionType.DEPOSIT), seen);
+            assertEquals(2, acc.history().size());
+        }
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(pool.submit(() -> {
+                worker.run(thread);
+                return null;
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+    }
+}
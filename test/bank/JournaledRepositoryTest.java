@@ -0,0 +1,190 @@
+package bank;
+
+import bank.application.BankService;
+import bank.domain.Bank;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.domain.TransactionType;
+import bank.infrastructure.FileBankRepository;
+import bank.infrastructure.JournaledBankRepository;
+import bank.infrastructure.PersistenceException;
+import bank.infrastructure.TextBankSerializer;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JournaledRepositoryTest {
+
+    @TempDir
+    Path dir;
+
+    private JournaledBankRepository newRepository(int checkpointInterval) {
+        return new JournaledBankRepository(dir.resolve("bank.txt"), dir.resolve("bank.journal"),
+                new TextBankSerializer(), checkpointInterval);
+    }
+
+    private Bank sampleBank() {
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-1", 1000.0, 0.01));
+        bank.addAccount(new CreditAccount("CR-1", 0.0, 500.0));
+        return bank;
+    }
+
+    @Test
+    void testTransfersAreAppendedToJournalAndReplayed() throws Exception {
+        try (JournaledBankRepository repository = newRepository(1000)) {
+            BankService service = new BankService(repository);
+            service.saveBank(sampleBank());
+            long snapshotSize = Files.size(dir.resolve("bank.txt"));
+
+            service.transfer("SA-1", "CR-1", 100.0);
+            service.transfer("CR-1", "SA-1", 30.0);
+
+            // Le snapshot n'est pas réécrit, seul le journal grossit
+            assertEquals(snapshotSize, Files.size(dir.resolve("bank.txt")));
+            assertEquals(2, Files.readAllLines(dir.resolve("bank.journal")).size());
+        }
+
+        try (JournaledBankRepository reopened = newRepository(1000)) {
+            Bank restored = reopened.load();
+            assertEquals(930.0, restored.getAccount("SA-1").getBalance(), 0.001);
+            assertEquals(70.0, restored.getAccount("CR-1").getBalance(), 0.001);
+        }
+    }
+
+    @Test
+    void testJournalEntryForUnknownAccountIsAPersistenceError() throws Exception {
+        try (JournaledBankRepository repository = newRepository(1000)) {
+            BankService service = new BankService(repository);
+            service.saveBank(sampleBank());
+            service.transfer("SA-1", "CR-1", 100.0);
+        }
+        // Snapshot remplacé par une banque sans CR-1 : le journal le nomme encore
+        Bank withoutCredit = new Bank();
+        withoutCredit.addAccount(new SavingsAccount("SA-1", 1000.0, 0.01));
+        new FileBankRepository(dir.resolve("bank.txt"), new TextBankSerializer()).save(withoutCredit);
+
+        try (JournaledBankRepository reopened = newRepository(1000)) {
+            PersistenceException e = assertThrows(PersistenceException.class, reopened::load);
+            assertTrue(e.getMessage().contains("ligne 1"), e.getMessage());
+            assertTrue(e.getMessage().contains("CR-1"), e.getMessage());
+        }
+    }
+
+    @Test
+    void testCheckpointTruncatesJournal() throws Exception {
+        try (JournaledBankRepository repository = newRepository(3)) {
+            BankService service = new BankService(repository);
+            service.saveBank(sampleBank());
+            for (int i = 0; i < 4; i++) {
+                service.transfer("SA-1", "CR-1", 10.0);
+            }
+            // Checkpoint après la 3e ligne, puis une ligne dans le nouveau journal
+            assertEquals(1, Files.readAllLines(dir.resolve("bank.journal")).size());
+        }
+
+        try (JournaledBankRepository reopened = newRepository(3)) {
+            assertEquals(960.0, reopened.load().getAccount("SA-1").getBalance(), 0.001);
+        }
+    }
+
+    @Test
+    void testTornJournalTailIsIgnored() throws Exception {
+        try (JournaledBankRepository repository = newRepository(1000)) {
+            BankService service = new BankService(repository);
+            service.saveBank(sampleBank());
+            service.transfer("SA-1", "CR-1", 100.0);
+        }
+        // Arrêt brutal au milieu d'une écriture
+        Files.writeString(dir.resolve("bank.journal"), "OP;SA-1=12", StandardOpenOption.APPEND);
+
+        try (JournaledBankRepository reopened = newRepository(1000)) {
+            assertEquals(900.0, reopened.load().getAccount("SA-1").getBalance(), 0.001);
+        }
+    }
+
+    @Test
+    void testConcurrentTransfersAreAllDurable() throws Exception {
+        try (JournaledBankRepository repository = newRepository(50)) {
+            BankService service = new BankService(repository);
+            service.saveBank(sampleBank());
+
+            ExecutorService pool = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        service.transfer("SA-1", "CR-1", 1.0);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+            pool.shutdown();
+        }
+
+        try (JournaledBankRepository reopened = newRepository(50)) {
+            Bank restored = reopened.load();
+            assertEquals(800.0, restored.getAccount("SA-1").getBalance(), 0.001);
+            assertEquals(200.0, restored.getAccount("CR-1").getBalance(), 0.001);
+        }
+    }
+
+    @Test
+    void testHistoryIsJournaledAndReplayed() throws Exception {
+        try (JournaledBankRepository repository = newRepository(1000)) {
+            BankService service = new BankService(repository);
+            service.saveBank(sampleBank());
+            service.transfer("SA-1", "CR-1", 100.0);
+            service.transfer("CR-1", "SA-1", 30.0);
+        }
+
+        try (JournaledBankRepository reopened = newRepository(1000)) {
+            Bank restored = reopened.load();
+            assertEquals(List.of(TransactionType.WITHDRAW, TransactionType.DEPOSIT),
+                restored.getAccount("SA-1").history().stream().map(tx -> tx.getType()).toList());
+            assertEquals(70.0, restored.getAccount("CR-1").history().get(1).getBalanceAfter(), 0.001);
+        }
+    }
+
+    @Test
+    void testInterruptedCheckpointReplaysOldJournalOnce() throws Exception {
+        Path journal = dir.resolve("bank.journal");
+        Path old = dir.resolve("bank.journal.old");
+        Path copy = dir.resolve("journal.copy");
+        try (JournaledBankRepository repository = newRepository(1000)) {
+            BankService service = new BankService(repository);
+            Bank bank = sampleBank();
+            service.saveBank(bank);
+            service.transfer("SA-1", "CR-1", 100.0);
+            service.transfer("SA-1", "CR-1", 50.0);
+            Files.copy(journal, copy);
+            // Snapshot écrit avec ces transferts, arrêt avant la suppression de l'ancien journal
+            repository.save(bank);
+        }
+        Files.move(copy, old, StandardCopyOption.REPLACE_EXISTING);
+
+        try (JournaledBankRepository reopened = newRepository(1000)) {
+            Bank restored = reopened.load();
+            assertEquals(850.0, restored.getAccount("SA-1").getBalance(), 0.001);
+            assertEquals(2, restored.getAccount("SA-1").history().size());
+            assertEquals(2, restored.getAccount("CR-1").history().size());
+            assertFalse(Files.exists(old));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package bank;
+
+import bank.application.load.LoadReport;
+import bank.application.load.LoadRunner;
+import bank.application.load.LoadTest;
+import bank.application.load.LogReplay;
+import bank.application.load.Operation;
+import bank.application.load.OperationType;
+import bank.application.load.WorkloadGenerator;
+import bank.application.load.ZipfDistribution;
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.SavingsAccount;
+import bank.domain.fees.FixedFeePolicy;
+import bank.infrastructure.LogLevel;
+import bank.infrastructure.Logger;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadRunnerTest {
+
+    @BeforeEach
+    void setUp() {
+        Logger.setLevel(LogLevel.WARN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.setLevel(LogLevel.INFO);
+    }
+
+    @Test
+    void testGeneratedWorkloadConservesMoney() throws InterruptedException {
+        Bank bank = LoadTest.createBank(300);
+        List<String> ids = new ArrayList<>();
+        for (Account acc : bank.getAllAccounts()) {
+            ids.add(acc.getAccountNumber());
+            acc.setFeePolicy(new FixedFeePolicy(0.10));
+        }
+
+        WorkloadGenerator generator = new WorkloadGenerator(ids, 40_000, 0.5, 1.1, 0.05, 7L);
+        LoadReport report = new LoadRunner(8, 7L).run(bank, generator);
+
+        assertEquals(40_000, report.getOperations());
+        assertTrue(report.getOperations(OperationType.BALANCE) > 0);
+        assertTrue(report.getOperations(OperationType.TRANSFER) > 0);
+        // 5 % d'opérations invalides, plus les retraits sans provision
+        assertTrue(report.getFailures() >= 1_500, report.toString());
+        assertTrue(report.getFailuresByReason().containsKey("UnknownAccountException"));
+        assertTrue(report.getFeesMinor() > 0);
+        assertTrue(report.isMoneyConserved(), report.toString());
+        assertTrue(report.getLatencies(OperationType.TRANSFER).getPercentileNanos(99) > 0);
+    }
+
+    @Test
+    void testZipfConcentratesOnHotRanks() {
+        SplittableRandom random = new SplittableRandom(1);
+        ZipfDistribution skewed = new ZipfDistribution(1000, 1.2);
+        ZipfDistribution uniform = new ZipfDistribution(1000, 0);
+        int skewedTop = 0;
+        int uniformTop = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (skewed.sample(random) < 10) {
+                skewedTop++;
+            }
+            if (uniform.sample(random) < 10) {
+                uniformTop++;
+            }
+        }
+        // 10 comptes sur 1000 : ~1 % en uniforme, plus de la moitié avec s = 1.2
+        assertTrue(skewedTop > 50_000, "skewed: " + skewedTop);
+        assertEquals(1_000, uniformTop, 200);
+    }
+
+    @Test
+    void testReplayFromLogLines() throws InterruptedException {
+        List<String> lines = List.of(
+            "[2026-01-04 13:54:31] INFO - Deposit OK: 200,00 to SA-002",
+            "[2026-01-04 13:54:32] INFO - Withdraw OK: 30.00 from SA-001 (fee: 0.00)",
+            "[2026-01-04 13:54:32] INFO - Deposit OK: 30.00 to SA-002",
+            "[2026-01-04 13:54:32] INFO - Transfert OK : 30.00 EUR SA-001 -> SA-002",
+            "[2026-01-04 13:54:33] ERROR - Transfert FAILED : 5000.00 EUR SA-001 -> SA-002 : solde",
+            "[2026-01-04 13:54:34] INFO - Fin de période 2025-12 : 3 comptes",
+            "[2026-01-04 13:54:35] INFO - Withdraw OK: 10.00 from SA-002 (fee: 0.00)");
+
+        LogReplay replay = LogReplay.fromLines(lines);
+
+        List<Operation> ops = replay.getOperations();
+        assertEquals(4, ops.size());
+        assertEquals(1, replay.getSkippedLines());
+        assertEquals(OperationType.DEPOSIT, ops.get(0).getType());
+        assertEquals(20_000, ops.get(0).getAmountMinor());
+        assertEquals(OperationType.TRANSFER, ops.get(1).getType());
+        assertEquals("SA-002", ops.get(1).getTarget());
+        assertEquals(OperationType.WITHDRAW, ops.get(3).getType());
+
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-001", 100.0, 0.0));
+        bank.addAccount(new SavingsAccount("SA-002", 0.0, 0.0));
+        LoadReport report = new LoadRunner(1, 1L).run(bank, replay);
+
+        assertEquals(4, report.getOperations());
+        assertEquals(1, report.getFailures(OperationType.TRANSFER));
+        assertEquals(70.0, bank.getAccount("SA-001").getBalance(), 0.001);
+        assertEquals(220.0, bank.getAccount("SA-002").getBalance(), 0.001);
+        assertTrue(report.isMoneyConserved());
+    }
+
+    @Test
+    void testReplayFoldsLinesOfCompensatedTransfers() {
+        List<String> lines = List.of(
+            "[2026-01-05 09:00:00] INFO - Withdraw OK: 25.00 from SA-001 (fee: 0.00)",
+            // Refusé avant le retrait : le retrait précédent est une autre opération
+            "[2026-01-05 09:00:01] ERROR - Transfert FAILED : 25.00 EUR SA-001 -> SA-002 : solde",
+            "[2026-01-05 09:00:02] INFO - Withdraw OK: 40.00 from SA-001 (fee: 0.00)",
+            "[2026-01-05 09:00:02] INFO - Deposit OK: 40.00 to SA-002",
+            "[2026-01-05 09:00:02] ERROR - Transfert FAILED : 40.00 EUR SA-001 -> SA-002 (annulé) : audit",
+            "[2026-01-05 09:00:03] INFO - Withdraw OK: 15.00 from SA-002 (fee: 0.00)",
+            "[2026-01-05 09:00:03] ERROR - Transfert FAILED : 15.00 EUR SA-002 -> SA-001 (annulé) : audit",
+            "[2026-01-05 09:00:04] ERROR - Batch transfert FAILED : 5.00 EUR SA-001 -> SA-002 : audit");
+
+        LogReplay replay = LogReplay.fromLines(lines);
+
+        List<Operation> ops = replay.getOperations();
+        assertEquals(4, ops.size());
+        assertEquals(1, replay.getSkippedLines());
+        assertEquals(OperationType.WITHDRAW, ops.get(0).getType());
+        assertEquals(2_500, ops.get(0).getAmountMinor());
+        for (int i = 1; i < ops.size(); i++) {
+            assertEquals(OperationType.TRANSFER, ops.get(i).getType());
+        }
+        assertEquals(4_000, ops.get(2).getAmountMinor());
+        assertEquals("SA-001", ops.get(3).getTarget());
+    }
+}
@@ -1,11 +1,15 @@
 package bank;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 
+import bank.infrastructure.AsyncLogWriter;
+import bank.infrastructure.LogLevel;
 import bank.infrastructure.Logger;
 
 import java.nio.file.*;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -24,6 +28,7 @@ class LoggerTest {
 
     @AfterEach
     void tearDown() throws IOException {
+        Logger.setLevel(LogLevel.INFO);
         Files.deleteIfExists(LOG_FILE);
     }
 
@@ -66,4 +71,132 @@ class LoggerTest {
         List<String> lines = Files.readAllLines(LOG_FILE);
         assertTrue(lines.get(0).matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\].*"));
     }
+
+    @Test
+    void testAsyncModeWritesAllLinesOnClose(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("async.log");
+        Logger.enableAsync(new AsyncLogWriter(file, 16, 50, 0, 0));
+        try {
+            for (int i = 0; i < 500; i++) {
+                logger.logInfo("Async message " + i);
+            }
+        } finally {
+            Logger.disableAsync();
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(500, lines.size());
+        assertTrue(lines.get(0).matches("\\[\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2}\\] INFO - Async message 0"));
+        assertTrue(lines.get(499).endsWith("Async message 499"));
+        assertFalse(Files.exists(LOG_FILE), "Le mode async ne doit pas écrire dans bank.log");
+    }
+
+    @Test
+    void testAsyncFlushAndRotation(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rotate.log");
+        AsyncLogWriter writer = new AsyncLogWriter(file, 1024, 10_000, 200, 2);
+        Logger.enableAsync(writer);
+        try {
+            for (int i = 0; i < 20; i++) {
+                logger.logError("Rotation " + i);
+            }
+            // flush() doit écrire sans attendre l'intervalle de 10 s
+            writer.flush();
+
+            assertTrue(Files.exists(dir.resolve("rotate.log.1")));
+            assertTrue(Files.exists(dir.resolve("rotate.log.2")));
+            assertFalse(Files.exists(dir.resolve("rotate.log.3")));
+            assertTrue(Files.size(file) <= 200);
+            List<String> last = Files.readAllLines(file);
+            assertTrue(last.get(last.size() - 1).endsWith("Rotation 19"));
+        } finally {
+            Logger.disableAsync();
+        }
+    }
+
+    @Test
+    void testDeadAsyncWriterFallsBackToSyncWrite(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("sink.log");
+        // La rotation vers un répertoire non vide échoue : le thread d'écriture s'arrête
+        Files.createDirectories(dir.resolve("sink.log.1"));
+        Files.writeString(dir.resolve("sink.log.1").resolve("x"), "x");
+        Logger.enableAsync(new AsyncLogWriter(file, 4, 10, 100, 1));
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                for (int i = 0; i < 200; i++) {
+                    logger.logInfo("Après panne " + i);
+                }
+            });
+        } finally {
+            Logger.disableAsync();
+        }
+
+        List<String> fallback = Files.readAllLines(LOG_FILE);
+        assertTrue(fallback.get(fallback.size() - 1).endsWith("Après panne 199"));
+    }
+
+    @Test
+    void testLevelGating() throws IOException {
+        Logger.setLevel(LogLevel.WARN);
+        assertFalse(logger.isEnabled(LogLevel.INFO));
+        assertTrue(logger.isEnabled(LogLevel.ERROR));
+
+        logger.logInfo("Ignored");
+        logger.log(LogLevel.INFO, () -> { throw new AssertionError("message construit"); });
+        logger.logError("Kept");
+
+        List<String> lines = Files.readAllLines(LOG_FILE);
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).endsWith("ERROR - Kept"));
+    }
+
+    @Test
+    void testParameterizedMessage() throws IOException {
+        logger.logAmount(LogLevel.INFO, "Withdraw OK: {} from {} (fee: {})", 12345L, "SA-1", 50L);
+        logger.log(LogLevel.INFO, "{} + {} = {}", "a", 'b', null);
+        logger.log(LogLevel.INFO, "Accounts: {} in {}", 12345L, "bank");
+
+        List<String> lines = Files.readAllLines(LOG_FILE);
+        assertTrue(lines.get(0).endsWith("INFO - Withdraw OK: 123.45 from SA-1 (fee: 0.50)"));
+        assertTrue(lines.get(1).endsWith("INFO - a + b = null"));
+        assertTrue(lines.get(2).endsWith("INFO - Accounts: 12345 in bank"));
+    }
+
+    @Test
+    void testSamplingPerCategory() throws IOException {
+        Logger.setSampling("test-sampled", 10);
+        try {
+            Logger sampled = new Logger("test-sampled");
+            for (int i = 0; i < 100; i++) {
+                sampled.log(LogLevel.INFO, "Sampled {}", "x");
+            }
+            sampled.logError("Never sampled");
+            logger.logInfo("Other category");
+
+            // 10 INFO sur 100 + l'ERROR + la ligne de l'autre catégorie
+            assertEquals(12, Files.readAllLines(LOG_FILE).size());
+        } finally {
+            Logger.setSampling("test-sampled", 1);
+        }
+    }
+
+    @Test
+    void testDisabledParameterizedLogDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = java.lang.management.ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        Logger.setLevel(LogLevel.WARN);
+        long id = Thread.currentThread().getId();
+
+        for (int i = 0; i < 10_000; i++) { // préchauffage
+            logger.logAmount(LogLevel.INFO, "Withdraw OK: {} from {} (fee: {})", i * 100L, "SA-1", 50L);
+        }
+        long before = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < 100_000; i++) {
+            logger.logAmount(LogLevel.INFO, "Withdraw OK: {} from {} (fee: {})", i * 100L, "SA-1", 50L);
+        }
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+
+        assertTrue(allocated < 10_000, "Allocation par appel désactivé : " + allocated + " octets");
+    }
 }
@@ -0,0 +1,76 @@
+package bank;
+
+import bank.domain.Bank;
+import bank.domain.SavingsAccount;
+import bank.errors.TransferException;
+import bank.errors.UnknownAccountException;
+import bank.infrastructure.metrics.LatencyHistogram;
+import bank.infrastructure.metrics.MetricsDumper;
+import bank.infrastructure.metrics.MetricsRegistry;
+import bank.infrastructure.metrics.OperationMetrics;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @Test
+    void testHistogramPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros * 1000);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(5_000_000, histogram.getPercentileNanos(50), 5_000_000 * 0.04);
+        assertEquals(9_900_000, histogram.getPercentileNanos(99), 9_900_000 * 0.04);
+        assertEquals(9_990_000, histogram.getPercentileNanos(99.9), 9_990_000 * 0.04);
+        assertEquals(10_000_000, histogram.getMaxNanos());
+        assertEquals(0, new LatencyHistogram().getPercentileNanos(99));
+    }
+
+    @Test
+    void testTransferFailuresCountedByReason() {
+        OperationMetrics transfers = MetricsRegistry.global().operation("bank.transfer");
+        long count = transfers.getCount();
+        long rules = transfers.getFailuresByReason().getOrDefault("BusinessRuleViolation", 0L);
+        long unknown = transfers.getFailuresByReason().getOrDefault("UnknownAccountException", 0L);
+
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-1", 100.0, 0.0));
+        bank.addAccount(new SavingsAccount("SA-2", 0.0, 0.0));
+        bank.transfer("SA-1", "SA-2", 10.0);
+        assertThrows(TransferException.class, () -> bank.transfer("SA-2", "SA-1", 500.0));
+        assertThrows(UnknownAccountException.class, () -> bank.transfer("SA-1", "SA-9", 1.0));
+
+        assertEquals(count + 3, transfers.getCount());
+        assertEquals(rules + 1, transfers.getFailuresByReason().get("BusinessRuleViolation"));
+        assertEquals(unknown + 1, transfers.getFailuresByReason().get("UnknownAccountException"));
+        assertTrue(MetricsRegistry.global().operation("account.withdraw").getCount() > 0);
+    }
+
+    @Test
+    void testJmxAndTextDump(@TempDir Path dir) throws Exception {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.operation("test.op").recordSuccess(System.nanoTime() - 2_000_000);
+        registry.enableJmx();
+
+        Object count = ManagementFactory.getPlatformMBeanServer()
+            .getAttribute(MetricsRegistry.objectName("test.op"), "Count");
+        assertEquals(1L, count);
+
+        Path file = dir.resolve("metrics.txt");
+        try (MetricsDumper dumper = new MetricsDumper(registry, file, 60_000)) {
+            dumper.dump();
+            String text = Files.readString(file);
+            assertTrue(text.contains("test.op"));
+            assertTrue(text.contains("p999(us)"));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+// test/bank/MoneyTest.java
+package bank;
+
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.Money;
+import bank.domain.SavingsAccount;
+import bank.domain.fees.PercentageFeePolicy;
+
+import java.math.RoundingMode;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    @Test
+    void testConversionIsExact() {
+        assertEquals(30, Money.ofMajor(0.1 + 0.2));
+        assertEquals(101, Money.ofMajor(1.01));
+        assertEquals(-5, Money.ofMajor(-0.05));
+        assertEquals(12.34, Money.toMajor(1234), 0.0);
+    }
+
+    @Test
+    void testRoundingModes() {
+        // 2.5 centimes
+        assertEquals(3, Money.divide(25, 10, RoundingMode.HALF_UP));
+        assertEquals(2, Money.divide(25, 10, RoundingMode.HALF_EVEN));
+        assertEquals(2, Money.divide(25, 10, RoundingMode.HALF_DOWN));
+        assertEquals(-3, Money.divide(-25, 10, RoundingMode.FLOOR));
+        assertEquals(-2, Money.divide(-25, 10, RoundingMode.DOWN));
+        assertThrows(ArithmeticException.class,
+            () -> Money.divide(25, 10, RoundingMode.UNNECESSARY));
+
+        assertEquals(1, Money.ofMajor(0.005, RoundingMode.HALF_UP));
+        assertEquals(0, Money.ofMajor(0.005, RoundingMode.HALF_EVEN));
+    }
+
+    @Test
+    void testParseAndFormat() {
+        assertEquals(123450, Money.parse("1234.5"));
+        assertEquals(-5, Money.parse("-0.05"));
+        assertEquals(1000000000, Money.parse("1.0E7"));
+        assertEquals(2, Money.parse("0.015")); // HALF_EVEN
+        assertEquals("1234.50", Money.format(123450));
+        assertEquals("-0.05", Money.format(-5));
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+    }
+
+    @Test
+    void testRepeatedSmallAmountsStayExact() {
+        Account acc = new SavingsAccount("SA-001", 0, 0.0);
+        for (int i = 0; i < 1000; i++) {
+            acc.deposit(0.1);
+        }
+        assertEquals(10000, acc.getBalanceMinor());
+    }
+
+    @Test
+    void testFeeAndInterestRounding() {
+        Account acc = new SavingsAccount("SA-002", 100.0, 0.0);
+        acc.setFeePolicy(new PercentageFeePolicy(0.015)); // 1.5 %
+
+        acc.withdraw(0.5); // frais 0.75 centime -> 1 centime
+        assertEquals(10000 - 50 - 1, acc.getBalanceMinor());
+
+        SavingsAccount sa = new SavingsAccount("SA-003", 0.25, 0.1);
+        sa.applyInterest(RoundingMode.DOWN); // 2.5 centimes -> 2
+        assertEquals(27, sa.getBalanceMinor());
+        sa.applyInterest(RoundingMode.HALF_UP); // 2.7 centimes -> 3
+        assertEquals(30, sa.getBalanceMinor());
+    }
+
+    @Test
+    void testApplyRateBeyond64BitProductStaysExact() {
+        long minor = 1_000_000_000_001L; // 10 G EUR + 1 centime
+        long half = Money.rateOf(0.5);
+
+        assertEquals(500_000_000_000L, Money.applyRate(minor, half, RoundingMode.HALF_EVEN));
+        assertEquals(500_000_000_001L, Money.applyRate(minor, half, RoundingMode.HALF_UP));
+        assertEquals(-500_000_000_001L, Money.applyRate(-minor, half, RoundingMode.FLOOR));
+        assertThrows(ArithmeticException.class,
+            () -> Money.applyRate(Long.MAX_VALUE, Money.rateOf(2.0), RoundingMode.DOWN));
+    }
+
+    @Test
+    void testTransferMinor() {
+        Bank bank = new Bank();
+        bank.addAccount(new SavingsAccount("SA-1", 10.0, 0.0));
+        bank.addAccount(new SavingsAccount("SA-2", 0.0, 0.0));
+
+        bank.transferMinor("SA-1", "SA-2", 1);
+
+        assertEquals(999, bank.getAccount("SA-1").getBalanceMinor());
+        assertEquals(1, bank.getAccount("SA-2").getBalanceMinor());
+    }
+}
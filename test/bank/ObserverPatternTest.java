@@ -2,6 +2,8 @@
 package bank;
 
 import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.CreditAccount;
 import bank.domain.SavingsAccount;
 import bank.domain.Transaction;
 import bank.domain.TransactionType;
@@ -9,9 +11,15 @@ import bank.domain.observer.*;
 import bank.errors.BusinessRuleViolation;
 
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.nio.file.*;
+import java.time.Duration;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ObserverPatternTest {
@@ -202,5 +210,218 @@ void testAuditServiceObservesDeposit() throws IOException {
         assertEquals(0, observer.count);
     }
 
-    
-}
\ No newline at end of file
+    @Test
+    void testBatchAuditServiceWritesAllEventsOnFlush(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("audit-batch.log");
+        Account acc = new SavingsAccount("SA-008", 1000.0, 0.02);
+
+        try (AuditService audit = new AuditService(file, 8, AuditOverflowPolicy.BLOCK)) {
+            acc.addObserver(audit);
+            for (int i = 0; i < 100; i++) {
+                acc.deposit(1.0);
+            }
+            audit.flush();
+
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(100, lines.size());
+            assertTrue(lines.get(0).contains("SA-008") && lines.get(0).contains("DEPOSIT"));
+            assertTrue(lines.get(99).contains("New Balance: 1100.00"));
+            assertEquals(0, audit.getDroppedCount());
+        }
+        assertFalse(Files.exists(AUDIT_FILE), "Le mode batch ne doit pas écrire dans audit.log");
+    }
+
+    @Test
+    void testBatchAuditServiceDropPolicyCountsLostEvents(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("audit-drop.log");
+        Account acc = new SavingsAccount("SA-009", 1000.0, 0.02);
+
+        AuditService audit = new AuditService(file, 1, AuditOverflowPolicy.DROP);
+        acc.addObserver(audit);
+        for (int i = 0; i < 200; i++) {
+            acc.deposit(1.0);
+        }
+        audit.close();
+
+        // Chaque événement est soit écrit, soit compté comme perdu
+        long written = Files.readAllLines(file).size();
+        assertEquals(200, written + audit.getDroppedCount());
+    }
+
+    @Test
+    void testBatchAuditServiceWritesEventsSubmittedAfterClose(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("audit-closed.log");
+        Account acc = new SavingsAccount("SA-011", 1000.0, 0.02);
+
+        AuditService audit = new AuditService(file, 1, AuditOverflowPolicy.BLOCK);
+        acc.addObserver(audit);
+        acc.deposit(1.0);
+        audit.close();
+
+        // Tampon plein ou non, rien n'attend un thread d'écriture arrêté
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 3; i++) {
+                acc.deposit(1.0);
+            }
+        });
+        assertEquals(4, Files.readAllLines(file).size());
+        assertEquals(0, audit.getDroppedCount());
+    }
+
+    @Test
+    void testBatchAuditServiceSpillPolicyKeepsEveryEvent(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("audit-spill.log");
+        Account acc = new SavingsAccount("SA-012", 1000.0, 0.02);
+
+        AuditService audit = new AuditService(file, 1, AuditOverflowPolicy.SPILL);
+        acc.addObserver(audit);
+        for (int i = 0; i < 200; i++) {
+            acc.deposit(1.0);
+        }
+        audit.close();
+
+        Path spill = dir.resolve("audit-spill.log.spill");
+        long spilled = Files.exists(spill) ? Files.readAllLines(spill).size() : 0;
+        assertEquals(audit.getSpilledCount(), spilled);
+        assertEquals(200, Files.readAllLines(file).size() + spilled);
+        assertEquals(0, audit.getDroppedCount());
+    }
+
+    @Test
+    void testAsyncObserverKeepsOrderPerObserver() throws InterruptedException {
+        Account acc = new SavingsAccount("SA-010", 0.0, 0.02);
+        List<Double> seen = new CopyOnWriteArrayList<>();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            AsyncObserver slow = new AsyncObserver((a, tx) -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                seen.add(tx.getBalanceAfter());
+            }, executor);
+            acc.addObserver(slow);
+
+            // Les dépôts ne sont pas bloqués par l'observateur lent
+            for (int i = 0; i < 500; i++) {
+                acc.deposit(1.0);
+            }
+            assertTrue(slow.getLag() > 0);
+
+            release.countDown();
+            slow.flush();
+            assertEquals(0, slow.getLag());
+            assertEquals(500, seen.size());
+            for (int i = 0; i < 500; i++) {
+                assertEquals(i + 1.0, seen.get(i), 0.001);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAsyncObserverSurvivesFailingObserverAndClose() {
+        Account acc = new SavingsAccount("SA-011", 0.0, 0.02);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        int[] calls = new int[1];
+        AsyncObserver failing = new AsyncObserver((a, tx) -> {
+            calls[0]++;
+            throw new IllegalStateException("observateur en panne");
+        }, executor);
+        acc.addObserver(failing);
+
+        acc.deposit(1.0);
+        acc.deposit(1.0);
+        failing.close();
+        executor.shutdown();
+
+        // Après close() et arrêt de l'executor, livraison directe
+        acc.deposit(1.0);
+        assertEquals(3, calls[0]);
+        assertEquals(3, failing.getFailureCount());
+        assertEquals(3.0, acc.getBalance(), 0.001);
+    }
+
+    @Test
+    void testAsyncObserverCloseDeliversEveryAcceptedEvent() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        AtomicInteger seen = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        Map<String, Double> lastBalance = new ConcurrentHashMap<>();
+        List<String> errors = new CopyOnWriteArrayList<>();
+        AsyncObserver observer = new AsyncObserver((a, tx) -> {
+            if (inFlight.incrementAndGet() > 1) {
+                errors.add("livraisons concurrentes");
+            }
+            Double previous = lastBalance.put(a.getAccountNumber(), tx.getBalanceAfter());
+            if (previous != null && previous >= tx.getBalanceAfter()) {
+                errors.add("désordre sur " + a.getAccountNumber());
+            }
+            seen.incrementAndGet();
+            inFlight.decrementAndGet();
+        }, executor);
+        Thread[] producers = new Thread[4];
+        for (int t = 0; t < producers.length; t++) {
+            Account acc = new SavingsAccount("SA-02" + t, 0.0, 0.0);
+            acc.addObserver(observer);
+            producers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    acc.deposit(1.0);
+                }
+            });
+            producers[t].start();
+        }
+
+        Thread.sleep(5);
+        observer.close();
+        // Tout événement accepté avant la fermeture est livré par close()
+        assertEquals(0, observer.getLag());
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        executor.shutdown();
+
+        assertEquals(8000, seen.get());
+        // Après close(), toujours un événement à la fois, dans l'ordre de chaque compte
+        assertEquals(List.of(), errors);
+    }
+
+    @Test
+    void testEventBusRoutesByTypeAccountTypeAndNumber() {
+        Bank bank = new Bank();
+        SavingsAccount sa = new SavingsAccount("SA-100", 1000.0, 0.02);
+        CreditAccount ca = new CreditAccount("CR-200", 1000.0, 500.0);
+        bank.addAccount(sa);
+        bank.addAccount(ca);
+
+        List<String> all = new CopyOnWriteArrayList<>();
+        List<String> savingsDeposits = new CopyOnWriteArrayList<>();
+        List<String> credit = new CopyOnWriteArrayList<>();
+        AccountObserver allObserver = (a, tx) -> all.add(a.getAccountNumber() + ":" + tx.getType());
+        bank.getEventBus().subscribe(allObserver);
+        bank.getEventBus().subscribe((a, tx) -> savingsDeposits.add(a.getAccountNumber()),
+            EnumSet.of(TransactionType.DEPOSIT), SavingsAccount.class, null);
+        bank.getEventBus().subscribe((a, tx) -> credit.add(tx.getType().name()),
+            EnumSet.allOf(TransactionType.class), Account.class, id -> id.startsWith("CR-"));
+
+        bank.transfer("SA-100", "CR-200", 100.0);
+        bank.transfer("CR-200", "SA-100", 50.0);
+
+        assertEquals(List.of("SA-100:WITHDRAW", "CR-200:DEPOSIT", "CR-200:WITHDRAW", "SA-100:DEPOSIT"), all);
+        assertEquals(List.of("SA-100"), savingsDeposits);
+        assertEquals(List.of("DEPOSIT", "WITHDRAW"), credit);
+
+        // Les comptes ajoutés après l'abonnement sont aussi observés
+        bank.addAccount(new SavingsAccount("SA-300", 0.0, 0.02));
+        bank.getAccount("SA-300").deposit(1.0);
+        assertEquals(List.of("SA-100", "SA-300"), savingsDeposits);
+
+        bank.getEventBus().unsubscribe(allObserver);
+        sa.deposit(1.0);
+        assertEquals(5, all.size());
+        assertEquals(2, bank.getEventBus().getSubscriberCount());
+    }
+}
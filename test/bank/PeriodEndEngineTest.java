@@ -0,0 +1,173 @@
+package bank;
+
+import bank.application.PeriodEndEngine;
+import bank.domain.Account;
+import bank.domain.Bank;
+import bank.domain.BusinessAccount;
+import bank.domain.CreditAccount;
+import bank.domain.SavingsAccount;
+import bank.domain.TransactionType;
+import bank.domain.fees.FixedFeePolicy;
+import bank.infrastructure.TextBankSerializer;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeriodEndEngineTest {
+
+    private static Bank sampleBank(int count) {
+        Bank bank = new Bank();
+        for (int i = 0; i < count; i++) {
+            switch (i % 3) {
+                case 0:
+                    bank.addAccount(new SavingsAccount(String.format("SA-%05d", i), 100.0, 0.01));
+                    break;
+                case 1:
+                    bank.addAccount(new CreditAccount(String.format("CR-%05d", i), 100.0, 500.0));
+                    break;
+                default:
+                    bank.addAccount(new BusinessAccount(String.format("BA-%05d", i), 100.0, 0.0, 0.02, "GOLD"));
+            }
+        }
+        return bank;
+    }
+
+    @Test
+    void testRunAppliesInterestAndFeesOnce(@TempDir Path dir) {
+        Bank bank = sampleBank(3000);
+        PeriodEndEngine engine = new PeriodEndEngine(new ForkJoinPool(4), dir.resolve("run.ckpt"),
+            new FixedFeePolicy(2.0), 128);
+
+        PeriodEndEngine.Summary summary = engine.run(bank, "2025-12");
+
+        assertEquals(3000, summary.getAccountsProcessed());
+        assertEquals(0, summary.getFailures());
+        // 1000 x 1.00 (épargne) + 1000 x 2.00 (entreprise) d'intérêts, 3000 x 2.00 de frais
+        assertEquals(300_000, summary.getInterestMinor());
+        assertEquals(600_000, summary.getFeesMinor());
+        assertEquals(99.0, bank.getAccount("SA-00000").getBalance(), 0.001);
+        assertEquals(98.0, bank.getAccount("CR-00001").getBalance(), 0.001);
+        assertEquals(100.0, bank.getAccount("BA-00002").getBalance(), 0.001);
+
+        // Même période : tout est déjà fait
+        PeriodEndEngine.Summary again = engine.run(bank, "2025-12");
+        assertEquals(0, again.getAccountsProcessed());
+        assertEquals(24, again.getSkippedChunks());
+        assertEquals(99.0, bank.getAccount("SA-00000").getBalance(), 0.001);
+    }
+
+    @Test
+    void testCancelBeforeRunStopsThatRunOnly(@TempDir Path dir) {
+        Bank bank = sampleBank(300);
+        PeriodEndEngine engine = new PeriodEndEngine(new ForkJoinPool(2), dir.resolve("run.ckpt"),
+            new FixedFeePolicy(2.0), 32);
+
+        engine.cancel();
+        PeriodEndEngine.Summary cancelled = engine.run(bank, "2025-12");
+        assertFalse(cancelled.isComplete());
+        assertEquals(10, cancelled.getCancelledChunks());
+        assertEquals(0, cancelled.getAccountsProcessed());
+        assertEquals(100.0, bank.getAccount("SA-00000").getBalance(), 0.001);
+
+        // La demande d'arrêt ne vaut que pour un run
+        PeriodEndEngine.Summary resumed = engine.run(bank, "2025-12");
+        assertTrue(resumed.isComplete());
+        assertEquals(300, resumed.getAccountsProcessed());
+    }
+
+    @Test
+    void testRunResumesFromCheckpoint(@TempDir Path dir) throws IOException {
+        Bank bank = sampleBank(300);
+        Path checkpoint = dir.resolve("run.ckpt");
+        // Run précédent interrompu après la tranche 1
+        PeriodEndEngine engine = new PeriodEndEngine(new ForkJoinPool(2), checkpoint, null, 100);
+        for (int i = 100; i < 200; i++) {
+            bank.getAllAccounts().get(i).closePeriod("2025-12", RoundingMode.HALF_EVEN, null);
+        }
+        Files.writeString(checkpoint, "RUN;2025-12;100\nDONE;1\n");
+
+        PeriodEndEngine.Summary summary = engine.run(bank, "2025-12");
+
+        assertEquals(200, summary.getAccountsProcessed());
+        assertEquals(1, summary.getSkippedChunks());
+        assertEquals(1, bank.getAccount("SA-00000").countOf(TransactionType.INTEREST));
+        assertEquals(1, bank.getAccount("SA-00150").countOf(TransactionType.INTEREST));
+
+        // Autre période : le checkpoint est recréé
+        assertEquals(300, engine.run(bank, "2026-01").getAccountsProcessed());
+        assertEquals(2, bank.getAccount("SA-00150").countOf(TransactionType.INTEREST));
+    }
+
+    @Test
+    void testResumeAfterCrashMidChunkChargesEachAccountOnce(@TempDir Path dir) throws IOException {
+        Bank bank = sampleBank(300);
+        Path checkpoint = dir.resolve("run.ckpt");
+        FixedFeePolicy fee = new FixedFeePolicy(2.0);
+        // Arrêt au milieu de la tranche 0 : 50 comptes clôturés, aucune tranche DONE
+        for (int i = 0; i < 50; i++) {
+            bank.getAllAccounts().get(i).closePeriod("2025-12", RoundingMode.HALF_EVEN, fee);
+        }
+        Files.writeString(checkpoint, "RUN;2025-12;100\n");
+        // Banque sauvegardée à ce moment puis rechargée
+        TextBankSerializer serializer = new TextBankSerializer();
+        Bank reloaded = serializer.deserialize(serializer.serialize(bank));
+
+        PeriodEndEngine.Summary summary = new PeriodEndEngine(new ForkJoinPool(2), checkpoint, fee, 100)
+            .run(reloaded, "2025-12");
+
+        assertEquals(250, summary.getAccountsProcessed());
+        assertEquals(50, summary.getAlreadyClosed());
+        for (Account acc : reloaded.getAllAccounts()) {
+            assertEquals(1, acc.countOf(TransactionType.FEE), acc.getAccountNumber());
+            assertEquals("2025-12", acc.getClosedPeriod());
+        }
+        assertEquals(99.0, reloaded.getAccount("SA-00000").getBalance(), 0.001);
+        assertEquals(99.0, reloaded.getAccount("SA-00201").getBalance(), 0.001);
+    }
+
+    @Test
+    void testDoneChunkWithUnsavedBalancesIsProcessed(@TempDir Path dir) throws IOException {
+        // Le run précédent avait terminé la tranche 0, mais la banque rechargée
+        // ne contient pas ses soldes
+        Bank bank = sampleBank(200);
+        Path checkpoint = dir.resolve("run.ckpt");
+        Files.writeString(checkpoint, "RUN;2025-12;100\nDONE;0\n");
+
+        PeriodEndEngine.Summary summary = new PeriodEndEngine(new ForkJoinPool(2), checkpoint, null, 100)
+            .run(bank, "2025-12");
+
+        assertEquals(200, summary.getAccountsProcessed());
+        assertEquals(0, summary.getSkippedChunks());
+        assertEquals(1, bank.getAccount("SA-00000").countOf(TransactionType.INTEREST));
+    }
+
+    @Test
+    void testRunConcurrentWithTransfers(@TempDir Path dir) throws InterruptedException {
+        Bank bank = sampleBank(600);
+        Thread transfers = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                bank.transfer("CR-00001", "CR-00004", 0.01);
+                bank.transfer("CR-00004", "CR-00001", 0.01);
+            }
+        });
+        transfers.start();
+        PeriodEndEngine.Summary summary = new PeriodEndEngine(new ForkJoinPool(4),
+            dir.resolve("run.ckpt"), new FixedFeePolicy(1.0), 16).run(bank, "2025-12");
+        transfers.join();
+
+        assertEquals(600, summary.getAccountsProcessed());
+        long total = 0;
+        for (Account acc : bank.getAllAccounts()) {
+            total += acc.getBalanceMinor();
+        }
+        assertEquals(600 * 10_000 + summary.getInterestMinor() - summary.getFeesMinor(), total);
+    }
+}
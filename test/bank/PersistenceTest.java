@@ -2,8 +2,21 @@ package bank;
 
 import bank.application.BankService;
 import bank.domain.*;
+import bank.infrastructure.BinaryBankSerializer;
+import bank.infrastructure.FileBankRepository;
 import bank.infrastructure.InMemoryBankRepository;
+import bank.infrastructure.MappedInputStream;
+import bank.infrastructure.TextBankSerializer;
 import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -118,4 +131,137 @@ public class PersistenceTest {
         
         assertNull(loaded, "Le chargement sans sauvegarde préalable doit retourner null");
     }
-}
\ No newline at end of file
+    
+    @Test
+    void testStreamingSerializerMatchesStringFormat() throws Exception {
+        TextBankSerializer serializer = new TextBankSerializer();
+        Bank bank = new BankService(new InMemoryBankRepository()).createSampleBank();
+        bank.getAccount("SA-1001").deposit(50.0);
+        
+        StringWriter writer = new StringWriter();
+        serializer.serialize(bank, writer);
+        assertEquals(serializer.serialize(bank), writer.toString());
+        
+        Bank reloaded = serializer.deserialize(new StringReader(writer.toString()));
+        assertEquals(3, reloaded.getAllAccounts().size());
+        assertEquals(1050.0, reloaded.getAccount("SA-1001").getBalance(), 0.001);
+    }
+    
+    @Test
+    void testFileRepositoryStreamsToDisk(@TempDir Path dir) throws Exception {
+        FileBankRepository repository =
+            new FileBankRepository(dir.resolve("bank.txt"), new TextBankSerializer());
+        Bank bank = new Bank();
+        for (int i = 0; i < 1000; i++) {
+            bank.addAccount(new SavingsAccount("SA-" + i, i, 0.01));
+        }
+        
+        repository.save(bank);
+        Bank reloaded = repository.load();
+        
+        assertEquals(1000, reloaded.getAllAccounts().size());
+        assertEquals("SA-0", reloaded.getAllAccounts().get(0).getAccountNumber());
+        assertEquals(999.0, reloaded.getAccount("SA-999").getBalance(), 0.001);
+    }
+    
+    @Test
+    void testMemoryMappedLoad(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("bank.txt");
+        Bank bank = new BankService(new InMemoryBankRepository()).createSampleBank();
+        new FileBankRepository(file, new TextBankSerializer()).save(bank);
+        
+        Bank reloaded = new FileBankRepository(file, new TextBankSerializer(), true).load();
+        
+        assertEquals(3, reloaded.getAllAccounts().size());
+        assertEquals(5000.0, reloaded.getAccount("BA-3001").getBalance(), 0.001);
+    }
+    
+    @Test
+    void testMappedInputStreamCrossesWindows(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("data.bin");
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Files.write(file, data);
+        
+        // Fenêtres de 7 octets : chaque lecture traverse plusieurs projections
+        try (InputStream in = new MappedInputStream(file, 7)) {
+            assertArrayEquals(data, in.readAllBytes());
+            assertEquals(-1, in.read());
+        }
+        
+        // skip() à l'intérieur d'une fenêtre puis par-dessus plusieurs fenêtres
+        try (InputStream in = new MappedInputStream(file, 7)) {
+            assertEquals(0, in.read());
+            assertEquals(3, in.skip(3));
+            assertEquals(4, in.read());
+            assertEquals(500, in.skip(500));
+            assertEquals((byte) 505, (byte) in.read());
+            assertEquals(494, in.skip(10_000));
+            assertEquals(-1, in.read());
+        }
+    }
+    
+    @Test
+    void testParallelSerializerMatchesSequential() throws Exception {
+        Bank bank = new Bank();
+        for (int i = 0; i < 3000; i++) {
+            Account acc = i % 2 == 0
+                ? new SavingsAccount("SA-" + i, i, 0.01)
+                : new CreditAccount("CR-" + i, i, 100.0);
+            bank.addAccount(acc);
+            acc.deposit(1.0);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            TextBankSerializer parallel = new TextBankSerializer(pool);
+            TextBankSerializer sequential = new TextBankSerializer();
+            
+            String data = parallel.serialize(bank);
+            assertEquals(sequential.serialize(bank), data);
+            
+            Bank reloaded = parallel.deserialize(data);
+            assertEquals(3000, reloaded.getAllAccounts().size());
+            for (int i = 0; i < 3000; i += 499) {
+                Account expected = bank.getAllAccounts().get(i);
+                Account actual = reloaded.getAllAccounts().get(i);
+                assertEquals(expected.getAccountNumber(), actual.getAccountNumber());
+                assertEquals(expected.getBalance(), actual.getBalance(), 0.001);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    void testHistoryIsRestoredWithOriginalTimestamps(@TempDir Path dir) throws Exception {
+        Bank bank = new Bank();
+        SavingsAccount sa = new SavingsAccount("SA-1", 100.0, 0.1);
+        bank.addAccount(sa);
+        sa.deposit(50.0);
+        sa.withdraw(30.0);
+        sa.applyInterest();
+        List<Transaction> original = sa.history();
+        
+        for (FileBankRepository repository : List.of(
+                new FileBankRepository(dir.resolve("bank.txt"), new TextBankSerializer()),
+                new FileBankRepository(dir.resolve("bank.bin"), new BinaryBankSerializer()))) {
+            repository.save(bank);
+            long logSize = Files.exists(Path.of("bank.log")) ? Files.size(Path.of("bank.log")) : 0;
+            
+            List<Transaction> restored = repository.load().getAccount("SA-1").history();
+            
+            assertEquals(original.size(), restored.size());
+            for (int i = 0; i < original.size(); i++) {
+                assertEquals(original.get(i).getTimestamp(), restored.get(i).getTimestamp());
+                assertEquals(original.get(i).getType(), restored.get(i).getType());
+                assertEquals(original.get(i).getAmount(), restored.get(i).getAmount(), 0.01);
+                assertEquals(original.get(i).getBalanceAfter(), restored.get(i).getBalanceAfter(), 0.01);
+            }
+            // La restauration n'écrit pas de log
+            long logSizeAfter = Files.exists(Path.of("bank.log")) ? Files.size(Path.of("bank.log")) : 0;
+            assertEquals(logSize, logSizeAfter);
+        }
+    }
+}
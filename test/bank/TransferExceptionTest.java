@@ -40,4 +40,16 @@ class TransferExceptionTest {
         bank.addAccount(faulty);
         assertThrows(TransferException.class, () -> bank.transfer("SA-003", "SA-002", 100.0));
     }
+
+    @Test
+    void testFeePolicyFailureIsWrappedAndNothingMoves() {
+        acc1.setFeePolicy(amount -> {
+            throw new ArithmeticException("frais hors limites");
+        });
+        TransferException e = assertThrows(TransferException.class,
+            () -> bank.transfer("SA-001", "SA-002", 100.0));
+        assertInstanceOf(ArithmeticException.class, e.getCause());
+        assertEquals(1000.0, acc1.getBalance(), 0.001);
+        assertEquals(500.0, acc2.getBalance(), 0.001);
+    }
 }